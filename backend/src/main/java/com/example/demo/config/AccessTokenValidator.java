@@ -0,0 +1,107 @@
+package com.example.demo.config;
+
+import com.example.demo.service.TokenBlacklistService;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/** All claim checks of an access token in one pass over the claims map
+ Replaces the chain JwtValidators.createDefault() → CustomJwtValidator → audience check → token_type check
+ (DelegatingOAuth2TokenValidator), which looked the claims up once per validator and built a result per validator.
+
+   exp / nbf    → invalid_token       "Jwt expired at ..." / "Jwt used before ..." (60s clock skew, as JwtTimestampValidator)
+   iss          → invalid_token       "The iss claim is not valid" (as JwtIssuerValidator)
+   jti          → token is blacklisted (same error as CustomJwtValidator)
+   aud          → invalid_audience
+   token_type   → invalid_token_type  (only tokens minted as access tokens may be used as bearer tokens)
+ Valid token: no allocation, success() is a shared instance. Errors are constants except the
+ timestamp ones (they carry the time). First failing check wins, in the order above - the chain reported
+ every failing check, this reports only one.
+ Tokens with a "cnf" claim (certificate-bound) are additionally handed to Spring's default validators.
+ */
+public class AccessTokenValidator implements OAuth2TokenValidator<Jwt> {
+
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+    private static final String RFC6750_URI = "https://tools.ietf.org/html/rfc6750#section-3.1";
+    private static final OAuth2Error INVALID_ISSUER =
+            new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "The iss claim is not valid", RFC6750_URI);
+    private static final OAuth2Error INVALID_TYPE =
+            new OAuth2Error("invalid_token_type", "Token type must be 'access'", null);
+
+    private final TokenBlacklistService tokenBlacklistService;
+    private final String expectedIssuer;
+    private final String expectedAudience;
+    private final OAuth2Error invalidAudience;
+    private final Clock clock;
+    private final OAuth2TokenValidator<Jwt> certificateBound = JwtValidators.createDefault();
+
+    public AccessTokenValidator(TokenBlacklistService tokenBlacklistService, String expectedIssuer, String expectedAudience) {
+        this(tokenBlacklistService, expectedIssuer, expectedAudience, Clock.systemUTC());
+    }
+
+    AccessTokenValidator(TokenBlacklistService tokenBlacklistService, String expectedIssuer, String expectedAudience,
+                         Clock clock) {
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.expectedIssuer = expectedIssuer;
+        this.expectedAudience = expectedAudience;
+        this.invalidAudience = new OAuth2Error("invalid_audience",
+                "The required audience '" + expectedAudience + "' is not present in the token", null);
+        this.clock = clock;
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt token) {
+        Map<String, Object> claims = token.getClaims();
+
+        Instant now = clock.instant();
+        if (claims.get(JwtClaimNames.EXP) instanceof Instant expiresAt && now.minus(CLOCK_SKEW).isAfter(expiresAt)) {
+            return failure("Jwt expired at " + expiresAt);
+        }
+        if (claims.get(JwtClaimNames.NBF) instanceof Instant notBefore && now.plus(CLOCK_SKEW).isBefore(notBefore)) {
+            return failure("Jwt used before " + notBefore);
+        }
+        if (claims.containsKey("cnf")) {
+            OAuth2TokenValidatorResult result = certificateBound.validate(token);
+            if (result.hasErrors()) {
+                return result;
+            }
+        }
+
+        Object issuer = claims.get(JwtClaimNames.ISS);
+        if (issuer == null || !expectedIssuer.equals(issuer.toString())) {
+            return OAuth2TokenValidatorResult.failure(INVALID_ISSUER);
+        }
+        if (claims.get(JwtClaimNames.JTI) instanceof String jti && tokenBlacklistService.isBlackListed(jti)) {
+            return OAuth2TokenValidatorResult.failure(CustomJwtValidator.REVOKED);
+        }
+        if (!hasAudience(claims.get(JwtClaimNames.AUD))) {
+            return OAuth2TokenValidatorResult.failure(invalidAudience);
+        }
+        if (!"access".equals(claims.get("token_type"))) {
+            return OAuth2TokenValidatorResult.failure(INVALID_TYPE);
+        }
+        return OAuth2TokenValidatorResult.success();
+    }
+
+    // "aud" is a list once Spring has converted the claims, a plain string is accepted as well
+    private boolean hasAudience(Object audience) {
+        if (audience instanceof Collection<?> audiences) {
+            return audiences.contains(expectedAudience);
+        }
+        return expectedAudience.equals(audience);
+    }
+
+    private static OAuth2TokenValidatorResult failure(String description) {
+        return OAuth2TokenValidatorResult.failure(new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, description, RFC6750_URI));
+    }
+}
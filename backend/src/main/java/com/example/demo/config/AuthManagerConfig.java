@@ -1,13 +1,18 @@
 package com.example.demo.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class AuthManagerConfig {
 
@@ -16,6 +21,18 @@ public class AuthManagerConfig {
         var p = new DaoAuthenticationProvider();
         p.setUserDetailsService(uds);
         p.setPasswordEncoder(encoder);
+        // Re-hash outdated passwords (old algorithm / lower cost) on successful login
+        if (uds instanceof UserDetailsPasswordService passwordService) {
+            p.setUserDetailsPasswordService(passwordService);
+        }
         return new ProviderManager(p);
     }
-}
\ No newline at end of file
+
+    // Opt-in: HTTP Basic skips the password hash for credentials verified in the last few seconds
+    @Bean
+    @ConditionalOnProperty(name = "app.auth.basic-cache.enabled", havingValue = "true")
+    VerifiedCredentialCache verifiedCredentialCache(@Value("${app.auth.basic-cache.max-entries:10000}") int maxEntries,
+                                                    @Value("${app.auth.basic-cache.ttl:30s}") Duration ttl) {
+        return new VerifiedCredentialCache(maxEntries, ttl);
+    }
+}
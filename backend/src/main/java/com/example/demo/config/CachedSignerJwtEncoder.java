@@ -0,0 +1,154 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** JwtEncoder that keeps a ready-to-use signer per key ID (replaces NimbusJwtEncoder for signing)
+ Works for every JwtAlgorithm (RS256, ES256, EdDSA) with plain JCA signatures
+ NimbusJwtEncoder, per token:  JWK selection → new RSASSASigner → Signature.getInstance() + initSign(key) → sign
+ This encoder, per token:      kid → key ring lookup → this thread's Signature (already initialized) → sign
+
+ - A java.security.Signature is not thread-safe, but after sign() it is ready for the next token
+   with the same key → one per thread and key, initialized once
+ - The encoded header is cached: AccessTokenMinter passes the same JwsHeader instance every time
+ - Output is a normal compact JWS (header.payload.signature), verifiable by any JWT library
+ */
+public class CachedSignerJwtEncoder implements JwtEncoder {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtKeyRing keyRing;
+    private final Map<String, KeySigner> signers = new ConcurrentHashMap<>();
+    private volatile EncodedHeader lastHeader;
+
+    private record EncodedHeader(JwsHeader header, String base64, KeySigner signer) {}
+
+    /** Signer for one key: JCA algorithm + one initialized Signature per thread */
+    private static final class KeySigner {
+        final JwtSigningKey key;
+        final ThreadLocal<Signature> signature;
+
+        KeySigner(JwtSigningKey key) {
+            this.key = key;
+            String jcaName = key.algorithm().jcaSignature();
+            this.signature = ThreadLocal.withInitial(() -> {
+                try {
+                    Signature s = Signature.getInstance(jcaName);
+                    s.initSign(key.privateKey());
+                    return s;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("Cannot create " + jcaName + " signer for key " + key.keyId(), e);
+                }
+            });
+        }
+
+        byte[] sign(byte[] signingInput) {
+            Signature s = signature.get();
+            try {
+                s.update(signingInput);
+                return s.sign();
+            } catch (GeneralSecurityException e) {
+                signature.remove(); // state unknown after a failure, start from a fresh one next time
+                throw new JwtEncodingException("Failed to sign the JWT with key " + key.keyId(), e);
+            }
+        }
+    }
+
+    /** Signs with the keys of the ring; a header without kid is signed with the ring's active key */
+    public CachedSignerJwtEncoder(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    /** Fixed keys, the first one is used when the header names no kid */
+    public CachedSignerJwtEncoder(List<JwtSigningKey> keys) {
+        this(JwtKeyRing.of(keys));
+    }
+
+    @Override
+    public Jwt encode(JwtEncoderParameters parameters) throws JwtEncodingException {
+        JwsHeader header = parameters.getJwsHeader() != null
+                ? parameters.getJwsHeader()
+                : JwsHeader.with(keyRing.active().algorithm()).build();
+        EncodedHeader encodedHeader = encodedHeader(header);
+        JwtClaimsSet claims = parameters.getClaims();
+
+        String signingInput = encodedHeader.base64() + "." + BASE64URL.encodeToString(
+                JSONObjectUtils.toJSONString(toJson(claims.getClaims())).getBytes(StandardCharsets.UTF_8));
+        byte[] signature = encodedHeader.signer().sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+        String token = signingInput + "." + BASE64URL.encodeToString(signature);
+
+        return Jwt.withTokenValue(token)
+                .headers(h -> {
+                    h.putAll(header.getHeaders());
+                    h.putIfAbsent("kid", encodedHeader.signer().key.keyId());
+                })
+                .claims(c -> c.putAll(claims.getClaims()))
+                .build();
+    }
+
+    private EncodedHeader encodedHeader(JwsHeader header) {
+        JwtSigningKey key = header.getKeyId() != null ? keyRing.find(header.getKeyId()) : keyRing.active();
+        EncodedHeader cached = lastHeader;
+        if (cached != null && cached.header() == header && cached.signer().key == key) {
+            return cached; // same header object, key not replaced by a rotation since
+        }
+        if (key == null || key.privateKey() == null) {
+            throw new JwtEncodingException("No signing key with kid \"" + header.getKeyId() + "\"");
+        }
+        if (!key.algorithm().matches(header.getAlgorithm())) {
+            throw new JwtEncodingException("Key " + key.keyId() + " signs " + key.algorithm().getName()
+                    + ", not " + header.getAlgorithm().getName());
+        }
+        Map<String, Object> json = toJson(header.getHeaders());
+        json.putIfAbsent("kid", key.keyId());
+        EncodedHeader encoded = new EncodedHeader(header,
+                BASE64URL.encodeToString(JSONObjectUtils.toJSONString(json).getBytes(StandardCharsets.UTF_8)), signerFor(key));
+        lastHeader = encoded;
+        return encoded;
+    }
+
+    // One KeySigner per kid; replaced when a rotation brings a different key, dropped once the ring forgot the kid
+    private KeySigner signerFor(JwtSigningKey key) {
+        KeySigner signer = signers.get(key.keyId());
+        if (signer == null || signer.key != key) {
+            signer = new KeySigner(key);
+            signers.put(key.keyId(), signer);
+            signers.keySet().removeIf(keyId -> keyRing.find(keyId) == null);
+        }
+        return signer;
+    }
+
+    // JSON form of header / claim values, the same as NimbusJwtEncoder produces
+    private static Map<String, Object> toJson(Map<String, Object> values) {
+        Map<String, Object> json = new LinkedHashMap<>(values.size() + 1);
+        values.forEach((name, value) -> {
+            if (value instanceof Instant instant) {
+                json.put(name, instant.getEpochSecond()); // exp, iat, nbf: seconds since epoch
+            } else if (value instanceof JwsAlgorithm algorithm) {
+                json.put(name, algorithm.getName());
+            } else if (value instanceof URL url) {
+                json.put(name, url.toExternalForm());
+            } else {
+                json.put(name, value);
+            }
+        });
+        return json;
+    }
+}
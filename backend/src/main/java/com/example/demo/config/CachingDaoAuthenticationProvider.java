@@ -0,0 +1,49 @@
+package com.example.demo.config;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/** DaoAuthenticationProvider that skips the password hash when the same credentials were verified recently
+ Flow per request (the same as the normal provider, only the password check can be short-circuited):
+   load user → disabled / locked / expired checks → password: cache hit? → else encoder.matches() + remember
+   → success authentication built from the freshly loaded user (current authorities)
+ Used by the HTTP Basic filter only (see SecurityConfig), /api/token logins always hash
+ The "same stored hash" check sees the hash the UserDetailsService returns: under the "jdbc" profile that comes
+ from the user cache (CachingUserDetailsManager), so a password changed directly in the database
+ keeps the old credentials working for up to app.users.cache.ttl (changes through the app evict at once)
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final VerifiedCredentialCache cache;
+
+    public CachingDaoAuthenticationProvider(UserDetailsService uds, PasswordEncoder encoder, VerifiedCredentialCache cache) {
+        super(uds);
+        setPasswordEncoder(encoder);
+        if (uds instanceof UserDetailsPasswordService passwordService) {
+            setUserDetailsPasswordService(passwordService);
+        }
+        this.cache = cache;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        String storedHash = userDetails.getPassword();
+        if (credentials == null || storedHash == null) {
+            super.additionalAuthenticationChecks(userDetails, authentication); // produces the usual error
+            return;
+        }
+        String password = credentials.toString();
+        if (cache.isVerified(userDetails.getUsername(), password, storedHash)) {
+            return;
+        }
+        super.additionalAuthenticationChecks(userDetails, authentication); // throws on a wrong password
+        cache.remember(userDetails.getUsername(), password, storedHash);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** JWT "roles" claim → authorities, cached by the claim value
+ Replaces JwtGrantedAuthoritiesConverter (claim "roles", no "SCOPE_" prefix), which parsed the claim and
+ built new SimpleGrantedAuthority objects on every request.
+
+   ["ROLE_ADMIN"]  → cache hit → the same immutable List<GrantedAuthority> every time
+   (miss: one canonical GrantedAuthority per role name, shared by all lists that contain it)
+
+ Role sets come from a tiny vocabulary (ROLE_USER, ROLE_ADMIN, ...), so the cache stays small;
+ a token with an unusual role list beyond MAX_ENTRIES distinct lists is converted without caching.
+ Note: JwtAuthenticationToken still copies the list into its own (AbstractAuthenticationToken does),
+ but the authority objects and the lookup are shared.
+ */
+public class CachingJwtAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    static final int MAX_ENTRIES = 256;
+    private static final String ROLES_CLAIM = "roles";
+
+    private final Map<List<?>, List<GrantedAuthority>> byRoles = new ConcurrentHashMap<>();
+    private final Map<String, GrantedAuthority> canonical = new ConcurrentHashMap<>();
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Object claim = jwt.getClaims().get(ROLES_CLAIM);
+        List<?> roles = switch (claim) {
+            case null -> List.of();
+            case List<?> list -> list;
+            case Collection<?> collection -> List.copyOf(collection);
+            // same as JwtGrantedAuthoritiesConverter: a single string holds space separated roles
+            case String string -> string.isBlank() ? List.of() : List.of(string.trim().split("\\s+"));
+            default -> List.of();
+        };
+
+        List<GrantedAuthority> cached = byRoles.get(roles);
+        if (cached != null) {
+            return cached;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            if (role != null) {
+                authorities.add(canonical(role.toString()));
+            }
+        }
+        authorities = List.copyOf(authorities);
+        if (byRoles.size() < MAX_ENTRIES) {
+            byRoles.putIfAbsent(List.copyOf(roles), authorities);
+        }
+        return authorities;
+    }
+
+    private GrantedAuthority canonical(String role) {
+        GrantedAuthority authority = canonical.get(role);
+        if (authority == null) {
+            authority = canonical.size() < MAX_ENTRIES
+                    ? canonical.computeIfAbsent(role, SimpleGrantedAuthority::new)
+                    : new SimpleGrantedAuthority(role);
+        }
+        return authority;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+
+/** Cache of already-verified JWTs in front of the real (RS256) decoder.
+ - The same bearer token is usually presented many times by one client,
+   so we only pay for signature verification + validator chain the first time
+ - Key: SHA-256 of the raw token string, Value: the decoded Jwt
+ - An entry is dropped as soon as the token's "exp" is reached
+ - Revocation is checked again on every hit, so logout takes effect immediately
+ - invalidateAll() drops every entry (called when the signing keys change: a token of a replaced key
+   must be verified again, and fail); a decode that overlaps it is not cached
+ - Bounded: once full, expired entries are purged first, then arbitrary ones
+ */
+public class CachingJwtDecoder implements JwtDecoder, MeterBinder {
+
+    private final JwtDecoder delegate;
+    private final OAuth2TokenValidator<Jwt> revocationValidator;
+    private final ExpiringCache<String, Jwt> cache;
+
+    // MessageDigest is not thread-safe and getInstance() is not free - keep one per thread
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    public CachingJwtDecoder(JwtDecoder delegate, OAuth2TokenValidator<Jwt> revocationValidator, int maxEntries) {
+        this(delegate, revocationValidator, maxEntries, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, OAuth2TokenValidator<Jwt> revocationValidator, int maxEntries, Clock clock) {
+        this.delegate = delegate;
+        this.revocationValidator = revocationValidator;
+        this.cache = new ExpiringCache<>("jwt-decode", maxEntries, clock);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null) {
+            return delegate.decode(null); // let the delegate produce its usual error
+        }
+        String key = cacheKey(token);
+        Jwt cached = cache.get(key, jwt -> jwt.getTokenValue().equals(token));
+        if (cached != null) {
+            checkNotRevoked(cached);
+            return cached;
+        }
+
+        // Full signature verification + validator chain (throws if invalid)
+        long generation = cache.generation();
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, jwt, jwt.getExpiresAt(), generation);
+        }
+        return jwt;
+    }
+
+    private void checkNotRevoked(Jwt jwt) {
+        OAuth2TokenValidatorResult result = revocationValidator.validate(jwt);
+        if (result.hasErrors()) {
+            throw new JwtValidationException("Unable to validate Jwt", result.getErrors());
+        }
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Remove entries whose token has expired
+     * Runs every minute, and also whenever the cache is full
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    private static String cacheKey(String token) {
+        byte[] digest = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public int getSize() {
+        return cache.getSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry, "Bearer tokens served from the verified-JWT cache",
+                "Bearer tokens that needed full signature verification");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.config;
+
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** RoleHierarchy with the expansion done once per distinct authority list
+ RoleHierarchyImpl walks the hierarchy and builds a new list at every authorization check
+ (URL rules and @PreAuthorize). Here:
+
+   [ROLE_ADMIN] → first time: delegate → {ROLE_ADMIN, ROLE_USER} (immutable Set, cached)
+                → after that: one hash lookup, the same Set instance for every request
+
+ Keyed by the authority list (GrantedAuthority equals/hashCode = the role name), so lists copied by
+ each Authentication still hit. Same size bound as CachingJwtAuthoritiesConverter.
+ */
+public class CachingRoleHierarchy implements RoleHierarchy {
+
+    private final RoleHierarchy delegate;
+    private final Map<List<? extends GrantedAuthority>, Set<GrantedAuthority>> reachable = new ConcurrentHashMap<>();
+
+    public CachingRoleHierarchy(RoleHierarchy delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getReachableGrantedAuthorities(
+            Collection<? extends GrantedAuthority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return Set.of();
+        }
+        // a Set never equals a List key, so other collections are copied for the lookup
+        Set<GrantedAuthority> cached = reachable.get(authorities instanceof List<?> ? authorities : List.copyOf(authorities));
+        if (cached != null) {
+            return cached;
+        }
+        Set<GrantedAuthority> expanded =
+                Collections.unmodifiableSet(new LinkedHashSet<>(delegate.getReachableGrantedAuthorities(authorities)));
+        if (reachable.size() < CachingJwtAuthoritiesConverter.MAX_ENTRIES) {
+            reachable.putIfAbsent(List.copyOf(authorities), expanded);
+        }
+        return expanded;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.provisioning.UserDetailsManager;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/** Short-lived cache of loaded users in front of the JDBC user store
+ - Every Basic-auth request and every /api/token login calls loadUserByUsername()
+   → without the cache that is a database round trip per request
+ - Entries live for app.users.cache.ttl, so changes made directly in the database show up after at most that long
+ - Every mutation through this manager (createUser from /api/users/register, updateUser, deleteUser,
+   changePassword, password upgrade on login) drops the user's entry right away
+ - A load that overlaps such a mutation is not cached (see ExpiringCache), so the old row can't come back
+ - Bounded: once full, expired entries are purged first, then arbitrary ones
+ - A copy is handed out on every hit: ProviderManager erases the password of the returned principal
+   after authentication, which must not wipe the cached one
+ */
+public class CachingUserDetailsManager implements UserDetailsManager, UserDetailsPasswordService, MeterBinder {
+
+    private final UserDetailsManager delegate;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ExpiringCache<String, UserDetails> cache;
+
+    public CachingUserDetailsManager(UserDetailsManager delegate, int maxEntries, Duration ttl) {
+        this(delegate, maxEntries, ttl, Clock.systemUTC());
+    }
+
+    CachingUserDetailsManager(UserDetailsManager delegate, int maxEntries, Duration ttl, Clock clock) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cache = new ExpiringCache<>("user-details", maxEntries, clock);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails cached = cache.get(username);
+        if (cached != null) {
+            return User.withUserDetails(cached).build();
+        }
+
+        // Unknown users are not cached: the next load simply asks the database again
+        long generation = cache.generation();
+        UserDetails loaded = delegate.loadUserByUsername(username);
+        cache.put(username, User.withUserDetails(loaded).build(), clock.instant().plus(ttl), generation);
+        return loaded;
+    }
+
+    @Override
+    public void createUser(UserDetails user) {
+        delegate.createUser(user);
+        invalidate(user.getUsername());
+    }
+
+    @Override
+    public void updateUser(UserDetails user) {
+        delegate.updateUser(user);
+        invalidate(user.getUsername());
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        delegate.deleteUser(username);
+        invalidate(username);
+    }
+
+    @Override
+    public void changePassword(String oldPassword, String newPassword) {
+        delegate.changePassword(oldPassword, newPassword);
+        // the delegate changes the password of the currently authenticated user
+        Authentication current = SecurityContextHolder.getContext().getAuthentication();
+        if (current != null) {
+            invalidate(current.getName());
+        }
+    }
+
+    @Override
+    public boolean userExists(String username) {
+        return delegate.userExists(username); // always asked fresh: used to reject duplicate registrations
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (!(delegate instanceof UserDetailsPasswordService passwordService)) {
+            return user; // store can't persist upgraded hashes, keep the old one
+        }
+        UserDetails updated = passwordService.updatePassword(user, newPassword);
+        invalidate(user.getUsername());
+        return updated;
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Remove entries older than the TTL
+     * Runs every minute, and also whenever the cache is full
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public int getSize() {
+        return cache.getSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry, "User lookups served from the user cache", "User lookups that went to the user store");
+    }
+}
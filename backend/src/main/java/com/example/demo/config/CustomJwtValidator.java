@@ -10,6 +10,13 @@ import org.springframework.security.oauth2.jwt.Jwt;
 @Configuration
 public class CustomJwtValidator implements OAuth2TokenValidator<Jwt> {
 
+    // shared by AccessTokenValidator, so a revoked token gets the same error on a cache hit and a miss
+    static final OAuth2Error REVOKED = new OAuth2Error(
+            "token is blacklisted",
+            "This token has been revoked",
+            null
+    );
+
     private final TokenBlacklistService tokenBlacklistService;
 
     public CustomJwtValidator(TokenBlacklistService tokenBlacklistService) {
@@ -20,12 +27,7 @@ public class CustomJwtValidator implements OAuth2TokenValidator<Jwt> {
     public OAuth2TokenValidatorResult validate(Jwt token) {
         String jti = token.getClaimAsString("jti");
         if (tokenBlacklistService.isBlackListed(jti)){
-            OAuth2Error error = new OAuth2Error(
-                    "token is blacklisted",
-                    "This token has been revoked",
-                    null
-            );
-            return OAuth2TokenValidatorResult.failure(error);
+            return OAuth2TokenValidatorResult.failure(REVOKED);
         }
         return OAuth2TokenValidatorResult.success();
     }
@@ -0,0 +1,138 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/** Bounded map with an expiry time per entry and hit/miss counters
+ Shared core of the caches in this package (verified JWTs, loaded users, verified Basic-auth credentials)
+ - get():  a hit is an unexpired entry that also passes the caller's check, anything else is dropped
+ - put():  once full, expired entries are purged first, then arbitrary ones down to 90% (they are simply loaded again)
+ - Loads racing with invalidation: take generation() BEFORE reading the source and hand it to put().
+   invalidate() / clear() bump the generation before removing, put() checks it again after storing:
+     load:        g = generation() → read source → store entry → generation still g? else remove the entry again
+     invalidate:  write source → generation++ → remove entry
+   Either the load sees the bump, or the invalidation runs after the store and removes the entry -
+   a value read before an invalidation is never left behind
+ */
+final class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, Instant expiresAt) {}
+
+    private final String name;
+    private final int maxEntries;
+    private final Clock clock;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** @param name value of the "cache" tag of the meters */
+    ExpiringCache(String name, int maxEntries, Clock clock) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    V get(K key) {
+        return get(key, value -> true);
+    }
+
+    /** @return the cached value if it has not expired and {@code stillValid} accepts it, else null (counted as a miss) */
+    V get(K key, Predicate<? super V> stillValid) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt().isAfter(clock.instant()) && stillValid.test(entry.value())) {
+                hits.increment();
+                return entry.value();
+            }
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    /** Store a value that does not depend on anything that can be invalidated */
+    void put(K key, V value, Instant expiresAt) {
+        put(key, value, expiresAt, generation.get());
+    }
+
+    /** Store a value read from the source after {@code loadedAt = generation()} was taken */
+    void put(K key, V value, Instant expiresAt, long loadedAt) {
+        makeRoom();
+        Entry<V> entry = new Entry<>(value, expiresAt);
+        entries.put(key, entry);
+        if (generation.get() != loadedAt) {
+            entries.remove(key, entry); // invalidated while loading, the value may be stale
+        }
+    }
+
+    void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    void purgeExpired() {
+        Instant now = clock.instant();
+        entries.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+    }
+
+    private void makeRoom() {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        purgeExpired();
+        // Still full: evict arbitrary entries down to 90%
+        Iterator<K> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries * 9L / 10 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    int getSize() {
+        return entries.size();
+    }
+
+    /** cache.gets{cache=name, result=hit|miss} and cache.size{cache=name} */
+    void bindTo(MeterRegistry registry, String hitDescription, String missDescription) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", name).tag("result", "hit")
+                .description(hitDescription)
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", name).tag("result", "miss")
+                .description(missDescription)
+                .register(registry);
+        Gauge.builder("cache.size", entries, Map::size)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
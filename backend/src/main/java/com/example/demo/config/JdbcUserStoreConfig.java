@@ -1,18 +1,21 @@
 package com.example.demo.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
-import org.springframework.security.provisioning.JdbcUserDetailsManager;
-import org.springframework.security.provisioning.UserDetailsManager;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 @Configuration
 @Profile("jdbc")
 public class JdbcUserStoreConfig {
+    // Loaded users are cached for a short time, so Basic auth / logins don't hit the database on every request
     @Bean
-    public UserDetailsManager userDetailsManager(DataSource dataSource) {
-        return new JdbcUserDetailsManager(dataSource);
+    public CachingUserDetailsManager userDetailsManager(DataSource dataSource,
+                                                        @Value("${app.users.cache.max-entries:10000}") int maxEntries,
+                                                        @Value("${app.users.cache.ttl:60s}") Duration ttl) {
+        return new CachingUserDetailsManager(new UpgradableJdbcUserDetailsManager(dataSource), maxEntries, ttl);
     }
 }
@@ -0,0 +1,58 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+
+/** Signing algorithms selectable with app.jwt.algorithm (the key files must be of the matching type)
+
+            key            signature   access token   sign (JDK)   verify (JDK)
+   RS256    RSA 2048       256 bytes   ~625 chars     slowest      fastest
+   ES256    EC P-256       64 bytes    ~370 chars     fastest      slow
+   EdDSA    Ed25519        64 bytes    ~370 chars     medium       slow
+
+ The JDK's EC / Ed25519 code is pure Java, RSA verification is a cheap public-exponent operation,
+ so on the JDK the EC/EdDSA win is token size and signing, not verification (which CachingJwtDecoder
+ already does only once per token). See JwtAlgorithmBenchmark for numbers on your hardware.
+ Spring's SignatureAlgorithm enum has no EdDSA, so this enum is the JwsAlgorithm used in JWT headers.
+ */
+public enum JwtAlgorithm implements JwsAlgorithm {
+
+    RS256("RSA", "SHA256withRSA", JWSAlgorithm.RS256),
+    // P1363 format = the raw R||S signature JWS expects (the plain JCA name returns DER)
+    ES256("EC", "SHA256withECDSAinP1363Format", JWSAlgorithm.ES256),
+    EdDSA("Ed25519", "Ed25519", JWSAlgorithm.EdDSA);
+
+    private final String keyAlgorithm;
+    private final String jcaSignature;
+    private final JWSAlgorithm nimbusAlgorithm;
+
+    JwtAlgorithm(String keyAlgorithm, String jcaSignature, JWSAlgorithm nimbusAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+        this.jcaSignature = jcaSignature;
+        this.nimbusAlgorithm = nimbusAlgorithm;
+    }
+
+    @Override
+    public String getName() {
+        return name();
+    }
+
+    /** KeyFactory / KeyPairGenerator algorithm of the key files */
+    public String keyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    /** java.security.Signature algorithm */
+    public String jcaSignature() {
+        return jcaSignature;
+    }
+
+    public JWSAlgorithm nimbusAlgorithm() {
+        return nimbusAlgorithm;
+    }
+
+    /** Same algorithm, whichever JwsAlgorithm type it is given as (e.g. SignatureAlgorithm.RS256) */
+    public boolean matches(JwsAlgorithm algorithm) {
+        return algorithm != null && name().equals(algorithm.getName());
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/** All JWT keys of this service: signs with ONE active key, verifies with every known key by kid
+ Three setups:
+ - single key (default): app.jwt.private-key-path / public-key-path (PEM), kid = app.jwt.key-id
+ - single key from a keystore: app.jwt.keystore.path (PKCS12), same kid
+   both are parsed once; if they are files (not inside a jar) they are watched and reloaded when modified -
+   the kid stays the same, so this replaces the key at once (tokens of the old key stop verifying: key compromise;
+   caches of verified tokens drop their entries through onKeysChanged, see CachingJwtDecoder)
+ - key directory (app.jwt.key-dir), rescanned every app.jwt.key-rescan-interval, no restart needed:
+     <kid>-public.pem    required - the key is published in the JWKS and accepted for verification
+     <kid>-private.pem   optional - without it the key only verifies (e.g. a key being phased out)
+
+ Rotation without failures (tokens are only signed with a key everybody can already verify):
+   new key files dropped in → published in JWKS + accepted at once
+                            → becomes the signing key app.jwt.key-activation-delay after its file was written
+                              (give other nodes and JWKS caches time to pick it up)
+   key files removed        → no longer signs, still verifies + published until the tokens it signed
+                              have expired (app.jwt.expires-min), then dropped
+ The active key is the newest one that is past its activation time.
+
+ Lookups read an immutable snapshot (kid → key HashMap, active key, JWKS + its serialized bytes) that rescan()
+ swaps in one write: O(1) per kid, no locking on the request path. Unchanged files are not parsed again,
+ and a rescan that changed nothing keeps the snapshot (so the JWKS bytes and ETag stay the same).
+ */
+public class JwtKeyRing implements MeterBinder {
+
+    static final String PUBLIC_SUFFIX = "-public.pem";
+    static final String PRIVATE_SUFFIX = "-private.pem";
+
+    /** One key plus the file state it was loaded from (null file times for the single-key setup) */
+    private record Entry(JwtSigningKey key, Instant activatesAt, FileTime publicModified,
+                         FileTime privateModified, Instant retiredAt) {
+
+        boolean canSign() {
+            return key.privateKey() != null && retiredAt == null;
+        }
+    }
+
+    private record Snapshot(Map<String, JwtSigningKey> byKid, JwtSigningKey active, Map<String, Object> jwks,
+                            JwksDocument jwksDocument) {}
+
+    /** The JWKS serialized once per key change: JSON bytes + strong ETag (hash of those bytes) */
+    public record JwksDocument(byte[] json, String etag) {
+
+        static JwksDocument of(Map<String, Object> jwks) {
+            byte[] json = JSONObjectUtils.toJSONString(jwks).getBytes(StandardCharsets.UTF_8);
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+                // same keys → same bytes → same ETag on every node and after restarts
+                return new JwksDocument(json, "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e); // every JDK ships SHA-256
+            }
+        }
+    }
+
+    /** Reads the single key again; the files are only watched for their modification time */
+    @FunctionalInterface
+    public interface KeyLoader {
+        JwtSigningKey load() throws IOException, GeneralSecurityException;
+    }
+
+    private record KeyFiles(List<Path> files, KeyLoader loader) {}
+
+    private final Path directory;
+    private final KeyFiles keyFiles;
+    private final JwtAlgorithm algorithm;
+    private final Duration activationDelay;
+    private final Duration retireGrace;
+    private final Clock clock;
+    private final LongAdder loadFailures = new LongAdder();
+
+    private Map<String, Entry> entries = new HashMap<>(); // guarded by "this", only touched by rescan()
+    private volatile Snapshot snapshot;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    /** Fixed set of keys, the first one signs */
+    public static JwtKeyRing of(List<JwtSigningKey> keys) {
+        return new JwtKeyRing(keys);
+    }
+
+    /** Single key read by loader, read again whenever one of files is modified */
+    public static JwtKeyRing watching(List<Path> files, KeyLoader loader) throws IOException, GeneralSecurityException {
+        return new JwtKeyRing(new KeyFiles(List.copyOf(files), loader));
+    }
+
+    private JwtKeyRing(KeyFiles keyFiles) throws IOException, GeneralSecurityException {
+        this.directory = null;
+        this.keyFiles = keyFiles;
+        this.algorithm = null;
+        this.activationDelay = Duration.ZERO;
+        this.retireGrace = Duration.ZERO;
+        this.clock = Clock.systemUTC();
+        // first load fails startup (bad file / password) instead of being counted as a rescan failure
+        FileTime modified = lastModified(keyFiles.files());
+        JwtSigningKey key = keyFiles.loader().load();
+        this.entries = Map.of(key.keyId(), new Entry(key, Instant.MIN, modified, null, null));
+        this.snapshot = buildSnapshot(key);
+    }
+
+    private JwtKeyRing(List<JwtSigningKey> keys) {
+        this.directory = null;
+        this.keyFiles = null;
+        this.algorithm = null;
+        this.activationDelay = Duration.ZERO;
+        this.retireGrace = Duration.ZERO;
+        this.clock = Clock.systemUTC();
+        if (keys.isEmpty() || keys.get(0).privateKey() == null) {
+            throw new IllegalArgumentException("The first key needs a private key to sign with");
+        }
+        Map<String, Entry> fixed = new HashMap<>();
+        for (JwtSigningKey key : keys) {
+            fixed.put(key.keyId(), new Entry(key, Instant.MIN, null, null, null));
+        }
+        this.entries = fixed;
+        this.snapshot = buildSnapshot(keys.get(0));
+    }
+
+    public JwtKeyRing(Path directory, JwtAlgorithm algorithm, Duration activationDelay, Duration retireGrace) {
+        this(directory, algorithm, activationDelay, retireGrace, Clock.systemUTC());
+    }
+
+    JwtKeyRing(Path directory, JwtAlgorithm algorithm, Duration activationDelay, Duration retireGrace, Clock clock) {
+        this.directory = directory;
+        this.keyFiles = null;
+        this.algorithm = algorithm;
+        this.activationDelay = activationDelay;
+        this.retireGrace = retireGrace;
+        this.clock = clock;
+        rescan();
+        if (snapshot == null) {
+            throw new IllegalStateException("No usable signing key (<kid>" + PUBLIC_SUFFIX + " + <kid>" + PRIVATE_SUFFIX
+                    + ") in " + directory);
+        }
+    }
+
+    /** {@code listener} runs after every change of the key set, once the new keys are in place */
+    public void onKeysChanged(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    private void publish(Snapshot next) {
+        snapshot = next;
+        changeListeners.forEach(Runnable::run);
+    }
+
+    /** Key new tokens are signed with */
+    public JwtSigningKey active() {
+        return snapshot.active();
+    }
+
+    /** Key with this kid, or null if unknown (or already dropped) */
+    public JwtSigningKey find(String keyId) {
+        return keyId == null ? null : snapshot.byKid().get(keyId);
+    }
+
+    public int size() {
+        return snapshot.byKid().size();
+    }
+
+    /** JWKS JSON object with the public half of every key that is still accepted */
+    public Map<String, Object> jwks() {
+        return snapshot.jwks();
+    }
+
+    /** Same JWKS, already serialized - the bytes must not be modified */
+    public JwksDocument jwksDocument() {
+        return snapshot.jwksDocument();
+    }
+
+    /** Pick up added / changed / removed key files (no-op for a fixed key set) */
+    @Scheduled(fixedDelayString = "${app.jwt.key-rescan-interval:30s}")
+    public synchronized void rescan() {
+        if (keyFiles != null) {
+            reloadKeyFiles();
+            return;
+        }
+        if (directory == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        Map<String, Entry> next = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PUBLIC_SUFFIX)) {
+            for (Path publicFile : files) {
+                String fileName = publicFile.getFileName().toString();
+                String keyId = fileName.substring(0, fileName.length() - PUBLIC_SUFFIX.length());
+                Entry known = entries.get(keyId);
+                try {
+                    Path privateFile = directory.resolve(keyId + PRIVATE_SUFFIX);
+                    FileTime publicModified = Files.getLastModifiedTime(publicFile);
+                    FileTime privateModified = Files.exists(privateFile) ? Files.getLastModifiedTime(privateFile) : null;
+                    if (known != null && known.retiredAt() == null
+                            && publicModified.equals(known.publicModified())
+                            && Objects.equals(privateModified, known.privateModified())) {
+                        next.put(keyId, known); // unchanged, no need to parse again
+                    } else {
+                        next.put(keyId, load(keyId, publicFile, privateFile, publicModified, privateModified));
+                    }
+                } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+                    // half-written or broken file: keep the version we had (if any), try again next scan
+                    loadFailures.increment();
+                    if (known != null) {
+                        next.put(keyId, known);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            loadFailures.increment();
+            return; // directory unreadable right now: keep serving the current keys
+        }
+
+        // Removed keys keep verifying until the tokens they signed have expired
+        entries.forEach((keyId, old) -> {
+            if (!next.containsKey(keyId)) {
+                Instant retiredAt = old.retiredAt() != null ? old.retiredAt() : now;
+                if (retiredAt.plus(retireGrace).isAfter(now)) {
+                    next.put(keyId, new Entry(old.key(), old.activatesAt(), old.publicModified(), old.privateModified(), retiredAt));
+                }
+            }
+        });
+
+        JwtSigningKey active = selectActive(next, now);
+        if (active == null) {
+            loadFailures.increment();
+            return; // no key to sign with: keep the previous state rather than failing every login
+        }
+        if (snapshot != null && active == snapshot.active() && next.equals(entries)) {
+            return; // nothing changed
+        }
+        entries = next;
+        publish(buildSnapshot(active));
+    }
+
+    private void reloadKeyFiles() {
+        Entry current = entries.values().iterator().next();
+        try {
+            FileTime modified = lastModified(keyFiles.files());
+            if (modified.equals(current.publicModified())) {
+                return; // unchanged, no need to parse again
+            }
+            JwtSigningKey key = keyFiles.loader().load();
+            entries = Map.of(key.keyId(), new Entry(key, Instant.MIN, modified, null, null));
+            publish(buildSnapshot(key));
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+            // half-written file or keystore: keep the key we have, try again next scan
+            loadFailures.increment();
+        }
+    }
+
+    // newest modification time of the watched files
+    private static FileTime lastModified(List<Path> files) throws IOException {
+        FileTime newest = FileTime.fromMillis(0);
+        for (Path file : files) {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.compareTo(newest) > 0) {
+                newest = modified;
+            }
+        }
+        return newest;
+    }
+
+    private Entry load(String keyId, Path publicFile, Path privateFile,
+                       FileTime publicModified, FileTime privateModified) throws IOException, GeneralSecurityException {
+        var publicKey = PemKeys.publicKey(Files.readString(publicFile), algorithm);
+        PrivateKey privateKey = privateModified != null ? PemKeys.privateKey(Files.readString(privateFile), algorithm) : null;
+        Instant activatesAt = privateModified != null ? privateModified.toInstant().plus(activationDelay) : Instant.MAX;
+        return new Entry(new JwtSigningKey(keyId, algorithm, privateKey, publicKey),
+                activatesAt, publicModified, privateModified, null);
+    }
+
+    // Newest key past its activation time; if none is yet (first deployment), the one closest to it
+    private static JwtSigningKey selectActive(Map<String, Entry> candidates, Instant now) {
+        List<Entry> signing = candidates.values().stream().filter(Entry::canSign).toList();
+        return signing.stream()
+                .filter(e -> !e.activatesAt().isAfter(now))
+                .max(Comparator.comparing(Entry::activatesAt))
+                .or(() -> signing.stream().min(Comparator.comparing(Entry::activatesAt)))
+                .map(Entry::key)
+                .orElse(null);
+    }
+
+    private Snapshot buildSnapshot(JwtSigningKey active) {
+        Map<String, JwtSigningKey> byKid = new HashMap<>();
+        List<JWK> published = new ArrayList<>();
+        published.add(active.toPublicJwk()); // active key first
+        for (Entry entry : entries.values()) {
+            byKid.put(entry.key().keyId(), entry.key());
+            if (!entry.key().keyId().equals(active.keyId())) {
+                published.add(entry.key().toPublicJwk());
+            }
+        }
+        Map<String, Object> jwks = new JWKSet(published).toJSONObject();
+        return new Snapshot(Map.copyOf(byKid), active, jwks, JwksDocument.of(jwks));
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.keys", this, JwtKeyRing::size)
+                .description("Keys accepted for JWT verification (and published in the JWKS)")
+                .register(registry);
+        FunctionCounter.builder("jwt.keys.load.failures", loadFailures, LongAdder::sum)
+                .description("Key files that could not be read or parsed during a rescan")
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+
+/** One signing key: kid + algorithm + key pair
+ Used by the encoder (private key), the decoder (public key, looked up by kid) and the JWKS endpoint (public JWK)
+ privateKey is null for keys that only verify (see JwtKeyRing)
+ */
+public record JwtSigningKey(String keyId, JwtAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey) {
+
+    // X.509 encoding of an Ed25519 public key = 12-byte algorithm prefix + the raw 32-byte key
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    /** Public half as a JWK: kty RSA (n, e), EC (crv P-256, x, y) or OKP (crv Ed25519, x) */
+    public JWK toPublicJwk() {
+        return switch (algorithm) {
+            case RS256 -> new RSAKey.Builder((RSAPublicKey) publicKey)
+                    .keyUse(KeyUse.SIGNATURE).keyID(keyId).algorithm(algorithm.nimbusAlgorithm()).build();
+            case ES256 -> new ECKey.Builder(Curve.P_256, (ECPublicKey) publicKey)
+                    .keyUse(KeyUse.SIGNATURE).keyID(keyId).algorithm(algorithm.nimbusAlgorithm()).build();
+            case EdDSA -> {
+                byte[] encoded = publicKey.getEncoded();
+                byte[] raw = Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length);
+                yield new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(raw))
+                        .keyUse(KeyUse.SIGNATURE).keyID(keyId).algorithm(algorithm.nimbusAlgorithm()).build();
+            }
+        };
+    }
+}
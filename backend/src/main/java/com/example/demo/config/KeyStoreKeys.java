@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+
+/** Key pair from a keystore (PKCS12 by default) instead of PEM files
+
+   keystore file + password → entry "alias" → private key + certificate → public key
+ Create one with: openssl pkcs12 -export -inkey jwt-private.pem -in jwt-cert.pem -name jwt -out jwt.p12
+ (keytool -genkeypair -storetype PKCS12 works too)
+ */
+final class KeyStoreKeys {
+
+    private KeyStoreKeys() {
+    }
+
+    static JwtSigningKey load(InputStream keyStore, String type, char[] password, String alias,
+                              String keyId, JwtAlgorithm algorithm) throws IOException, GeneralSecurityException {
+        KeyStore store = KeyStore.getInstance(type);
+        store.load(keyStore, password);
+        if (!(store.getKey(alias, password) instanceof PrivateKey privateKey)) {
+            throw new UnrecoverableKeyException("No private key entry \"" + alias + "\" in keystore");
+        }
+        Certificate certificate = store.getCertificate(alias);
+        if (certificate == null) {
+            throw new UnrecoverableKeyException("No certificate for \"" + alias + "\" in keystore");
+        }
+        if (!privateKey.getAlgorithm().equals(algorithm.keyAlgorithm())
+                && !(algorithm == JwtAlgorithm.EdDSA && privateKey.getAlgorithm().equals("EdDSA"))) {
+            throw new UnrecoverableKeyException("Keystore entry \"" + alias + "\" is a " + privateKey.getAlgorithm()
+                    + " key, app.jwt.algorithm " + algorithm.getName() + " needs " + algorithm.keyAlgorithm());
+        }
+        return new JwtSigningKey(keyId, algorithm, privateKey, certificate.getPublicKey());
+    }
+}
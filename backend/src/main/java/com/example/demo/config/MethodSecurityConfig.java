@@ -0,0 +1,44 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
+
+/** SpEL for @PreAuthorize / @PostAuthorize / @PostFilter (method security is enabled in SecurityConfig)
+
+ Spring parses each annotation's expression once and keeps the Expression per method;
+ by default that Expression is then interpreted (AST walk + reflection) on every call.
+ With the compiler on, SpEL turns it into bytecode after its first evaluation:
+   "hasRole('USER') and authentication.name == #document.owner" → compiled class, plain method calls
+ Expressions SpEL can't compile (e.g. bean references like @customSecurity...) stay interpreted.
+
+ app.security.spel-compiler-mode:
+   IMMEDIATE (default) - compile after the first evaluation
+   MIXED               - compile after 100 evaluations, fall back to interpreted if a compiled one fails
+   OFF                 - always interpreted (Spring's default)
+ */
+@Configuration
+public class MethodSecurityConfig {
+
+    // static: method security infrastructure is created early, before this configuration's instance
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            RoleHierarchy roleHierarchy,
+            ApplicationContext applicationContext,
+            @Value("${app.security.spel-compiler-mode:IMMEDIATE}") SpelCompilerMode compilerMode) {
+        var handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setExpressionParser(new SpelExpressionParser(
+                new SpelParserConfiguration(compilerMode, MethodSecurityConfig.class.getClassLoader())));
+        // a custom handler replaces Spring's, so role hierarchy and @bean resolution are wired here
+        handler.setRoleHierarchy(roleHierarchy);
+        handler.setApplicationContext(applicationContext);
+        return handler;
+    }
+}
@@ -1,11 +1,45 @@
 package com.example.demo.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Map;
+
+/** Password hashing: "{id}hash" format, so several algorithms can live side by side
+   {bcrypt}$2a$12$...   {argon2}$argon2id$v=19$m=19456,t=2,p=1$...   $2a$10$... (old rows without prefix = bcrypt)
+ - New hashes use app.password.encoder (bcrypt | argon2)
+ - Work factor is calibrated at startup to app.password.target-hash-time (see PasswordHashCalibration),
+   unless fixed with bcrypt-strength / argon2.iterations
+ - On a successful login an outdated hash (other algorithm, no prefix, lower cost) is re-hashed
+   and stored (DaoAuthenticationProvider + UserDetailsPasswordService, see AuthManagerConfig)
+ */
 @Configuration
 public class PasswordConfig {
-    @Bean public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
-}
\ No newline at end of file
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${app.password.encoder:bcrypt}") String encodingId,
+                                           @Value("${app.password.target-hash-time:250ms}") Duration targetHashTime,
+                                           @Value("${app.password.bcrypt-strength:0}") int bcryptStrength,
+                                           @Value("${app.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${app.password.argon2.parallelism:1}") int argon2Parallelism,
+                                           @Value("${app.password.argon2.iterations:0}") int argon2Iterations) {
+        // 0 = calibrate on this hardware (only the algorithm in use, so startup pays for one calibration)
+        boolean argon2 = encodingId.equals("argon2");
+        int strength = bcryptStrength > 0 ? bcryptStrength
+                : argon2 ? PasswordHashCalibration.MIN_BCRYPT_STRENGTH : PasswordHashCalibration.bcryptStrength(targetHashTime);
+        int iterations = argon2Iterations > 0 ? argon2Iterations
+                : argon2 ? PasswordHashCalibration.argon2Iterations(targetHashTime, argon2MemoryKib, argon2Parallelism) : 1;
+
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        var encoder = new DelegatingPasswordEncoder(encodingId, Map.of(
+                "bcrypt", bcrypt,
+                "argon2", PasswordHashCalibration.argon2(argon2MemoryKib, argon2Parallelism, iterations)));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt); // data.sql hashes have no {id} prefix
+        return encoder;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+/** Picks the password-hash work factor for THIS machine at startup
+ - Goal: one hash ≈ target time (e.g. 250ms) - slower = safer against offline cracking,
+   faster = more logins per second per core
+ - BCrypt: every +1 strength doubles the time → measure strength 10, add log2(target / time)
+ - Argon2: memory is configured, time grows linearly with iterations → measure 1 iteration, scale
+ Never goes below the current defaults (BCrypt 10, Argon2 1 iteration)
+ */
+final class PasswordHashCalibration {
+
+    static final int MIN_BCRYPT_STRENGTH = 10;
+    static final int MAX_BCRYPT_STRENGTH = 16;
+    static final int MAX_ARGON2_ITERATIONS = 10;
+
+    private static final String SAMPLE = "calibration-Password-1";
+
+    private PasswordHashCalibration() {
+    }
+
+    static int bcryptStrength(Duration target) {
+        long nanos = fastestOf(3, new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH));
+        int extra = (int) Math.floor(log2((double) target.toNanos() / nanos));
+        return Math.min(MAX_BCRYPT_STRENGTH, MIN_BCRYPT_STRENGTH + Math.max(0, extra));
+    }
+
+    static int argon2Iterations(Duration target, int memoryKib, int parallelism) {
+        long nanos = fastestOf(3, argon2(memoryKib, parallelism, 1));
+        long iterations = target.toNanos() / nanos;
+        return (int) Math.min(MAX_ARGON2_ITERATIONS, Math.max(1, iterations));
+    }
+
+    static Argon2PasswordEncoder argon2(int memoryKib, int parallelism, int iterations) {
+        return new Argon2PasswordEncoder(16, 32, parallelism, memoryKib, iterations);
+    }
+
+    // fastest run = least disturbed by JIT warm-up and other startup work
+    private static long fastestOf(int runs, PasswordEncoder encoder) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Math.max(1, best);
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.config;
+
+import org.bouncycastle.asn1.ASN1Object;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.asn1.pkcs.RSAPrivateKey;
+import org.bouncycastle.asn1.pkcs.RSAPublicKey;
+import org.bouncycastle.asn1.sec.ECPrivateKey;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.asn1.x9.X9ObjectIdentifiers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** PEM text → Java key objects (shared by the single-key setup in JwtBeans and JwtKeyRing)
+
+ Visual Flow Diagram
+
+   PEM File → Read as String → Find BEGIN/END block → Base64 Decode → Binary Data → Java Key Object (RSA / EC / Ed25519)
+ PKCS8 is standard format for private keys while X509 is standard format for public keys.
+ The older openssl formats are rewrapped into those two first (ASN.1 from BouncyCastle, no other parsing):
+   BEGIN PRIVATE KEY       PKCS8                  (openssl genpkey)
+   BEGIN RSA PRIVATE KEY   PKCS1 → PKCS8          (openssl genrsa 1.x)
+   BEGIN EC PRIVATE KEY    SEC1  → PKCS8          (openssl ecparam -genkey)
+   BEGIN PUBLIC KEY        X509
+   BEGIN RSA PUBLIC KEY    PKCS1 → X509
+   BEGIN CERTIFICATE       public key of the certificate
+ */
+final class PemKeys {
+
+    // label + Base64 body of one block; a file may hold several (e.g. "EC PARAMETERS" before the key)
+    private static final Pattern BLOCK = Pattern.compile("-----BEGIN ([A-Z0-9 ]+)-----(.*?)-----END \\1-----", Pattern.DOTALL);
+
+    private PemKeys() {
+    }
+
+    static PrivateKey privateKey(String pem, JwtAlgorithm algorithm) throws IOException, GeneralSecurityException {
+        Matcher block = BLOCK.matcher(pem);
+        while (block.find()) {
+            byte[] der = decode(block.group(2));
+            byte[] pkcs8 = switch (block.group(1)) {
+                case "PRIVATE KEY" -> der;
+                case "RSA PRIVATE KEY" -> encode(new PrivateKeyInfo(
+                        new AlgorithmIdentifier(PKCSObjectIdentifiers.rsaEncryption, DERNull.INSTANCE),
+                        RSAPrivateKey.getInstance(der)));
+                case "EC PRIVATE KEY" -> {
+                    ECPrivateKey sec1 = ECPrivateKey.getInstance(der);
+                    yield encode(new PrivateKeyInfo(
+                            new AlgorithmIdentifier(X9ObjectIdentifiers.id_ecPublicKey, sec1.getParametersObject()), sec1));
+                }
+                case "ENCRYPTED PRIVATE KEY" ->
+                        throw new InvalidKeySpecException("Encrypted private keys are not supported, use a PKCS12 keystore");
+                default -> null; // not a private key block, keep looking
+            };
+            if (pkcs8 != null) {
+                // Create private key object of the configured algorithm's key type
+                // keyFactory is the javatool for creating key objects
+                KeyFactory keyFactory = KeyFactory.getInstance(algorithm.keyAlgorithm());
+                return keyFactory.generatePrivate(new PKCS8EncodedKeySpec(pkcs8)); // tells java that these bytes are in PKCS8 format
+            }
+        }
+        throw new InvalidKeySpecException("No private key block in PEM");
+    }
+
+    static PublicKey publicKey(String pem, JwtAlgorithm algorithm) throws IOException, GeneralSecurityException {
+        Matcher block = BLOCK.matcher(pem);
+        while (block.find()) {
+            byte[] der = decode(block.group(2));
+            byte[] x509 = switch (block.group(1)) {
+                case "PUBLIC KEY" -> der;
+                case "RSA PUBLIC KEY" -> encode(new SubjectPublicKeyInfo(
+                        new AlgorithmIdentifier(PKCSObjectIdentifiers.rsaEncryption, DERNull.INSTANCE),
+                        RSAPublicKey.getInstance(der)));
+                case "CERTIFICATE" -> CertificateFactory.getInstance("X.509")
+                        .generateCertificate(new ByteArrayInputStream(der)).getPublicKey().getEncoded();
+                default -> null;
+            };
+            if (x509 != null) {
+                KeyFactory keyFactory = KeyFactory.getInstance(algorithm.keyAlgorithm());
+                return keyFactory.generatePublic(new X509EncodedKeySpec(x509));
+            }
+        }
+        throw new InvalidKeySpecException("No public key block in PEM");
+    }
+
+    private static byte[] decode(String base64) throws InvalidKeySpecException {
+        try {
+            return Base64.getMimeDecoder().decode(base64.strip());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeySpecException("PEM block is not valid Base64", e);
+        }
+    }
+
+    private static byte[] encode(ASN1Object structure) throws IOException {
+        return structure.getEncoded();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.config;
+
+import com.example.demo.filter.RateLimitBucketFactory;
+import com.example.demo.filter.RateLimitProperties;
+import com.example.demo.filter.RateLimitingFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** The two rate-limit stages, placed inside the security filter chain by SecurityConfig
+ Spring Boot would also register every Filter bean with the servlet container (running it a second time,
+ outside the chain) → the FilterRegistrationBeans below switch that off
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitingFilter preAuthRateLimitFilter(RateLimitProperties properties,
+                                                     ObjectProvider<RateLimitBucketFactory> bucketFactory) {
+        return new RateLimitingFilter(RateLimitProperties.Stage.PRE_AUTH, properties, bucketFactory);
+    }
+
+    @Bean
+    public RateLimitingFilter principalRateLimitFilter(RateLimitProperties properties,
+                                                       ObjectProvider<RateLimitBucketFactory> bucketFactory) {
+        return new RateLimitingFilter(RateLimitProperties.Stage.PRINCIPAL, properties, bucketFactory);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitingFilter> preAuthRateLimitFilterRegistration(RateLimitingFilter preAuthRateLimitFilter) {
+        return disabledRegistration(preAuthRateLimitFilter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitingFilter> principalRateLimitFilterRegistration(RateLimitingFilter principalRateLimitFilter) {
+        return disabledRegistration(principalRateLimitFilter);
+    }
+
+    private static FilterRegistrationBean<RateLimitingFilter> disabledRegistration(RateLimitingFilter filter) {
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
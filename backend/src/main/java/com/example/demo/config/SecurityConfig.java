@@ -2,19 +2,25 @@ package com.example.demo.config;
 
 import com.example.demo.errors.JsonAccessDeniedHandler;
 import com.example.demo.errors.JsonAuthEntryPoint;
+import com.example.demo.filter.RateLimitingFilter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
 import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.header.writers.XXssProtectionHeaderWriter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
@@ -30,8 +36,12 @@ import org.springframework.web.cors.CorsConfigurationSource;
  * 6. OAuth2AuthorizationRequestRedirectFilter - OAuth2 login flow
  * 7. UsernamePasswordAuthenticationFilter - Form login processing
  * 8. DefaultLoginPageGeneratingFilter - Generates default login page
+ *    → RateLimitingFilter (pre-auth stage) - per-IP limits, rejects floods before any bcrypt / RSA work
  * 9. BasicAuthenticationFilter - HTTP Basic authentication
+ *    (optionally skips the password hash for recently verified credentials, see VerifiedCredentialCache)
  * 10. BearerTokenAuthenticationFilter - JWT token processing (OAuth2 Resource Server)
+ *    (Spring Security 6 actually runs Bearer before Basic - the rate-limit stages wrap both)
+ *    → RateLimitingFilter (principal stage) - per-user / per-role limits, principal is known now
  * 11. RequestCacheAwareFilter - Saves/restores requests
  * 12. SecurityContextHolderAwareRequestFilter - Servlet API integration
  * 13. AnonymousAuthenticationFilter - Creates anonymous authentication
@@ -50,29 +60,43 @@ import org.springframework.web.cors.CorsConfigurationSource;
 @EnableMethodSecurity
 public class SecurityConfig {
 
-    // Map JWT claim "roles" -> GrantedAuthority (no "SCOPE_" prefix)
+    // Map JWT claim "roles" -> GrantedAuthority (no "SCOPE_" prefix), one shared list per distinct role set
     private JwtAuthenticationConverter jwtAuthConverter() {
-        var gac = new JwtGrantedAuthoritiesConverter();
-        gac.setAuthoritiesClaimName("roles");
-        gac.setAuthorityPrefix("");
         var jac = new JwtAuthenticationConverter();
-        jac.setJwtGrantedAuthoritiesConverter(gac);
+        jac.setJwtGrantedAuthoritiesConverter(new CachingJwtAuthoritiesConverter());
         return jac;
     }
 
+    // Expanded once per distinct role set, then a lookup (see CachingRoleHierarchy)
     @Bean
     public RoleHierarchy roleHierarchy() {
         var h = new RoleHierarchyImpl();
         h.setHierarchy("ROLE_ADMIN > ROLE_USER");
-        return h;
+        return new CachingRoleHierarchy(h);
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http,
                                            JsonAuthEntryPoint entryPoint,
                                            JsonAccessDeniedHandler deniedHandler,
-                                           CorsConfigurationSource corsConfigurationSource) throws Exception {
+                                           CorsConfigurationSource corsConfigurationSource,
+                                           RateLimitingFilter preAuthRateLimitFilter,
+                                           RateLimitingFilter principalRateLimitFilter,
+                                           UserDetailsService userDetailsService,
+                                           PasswordEncoder passwordEncoder,
+                                           ObjectProvider<VerifiedCredentialCache> basicAuthCache) throws Exception {
+        // app.auth.basic-cache.enabled: Basic auth goes through the caching provider instead of the
+        // shared AuthenticationManager (/api/token logins keep using that one and always hash).
+        // The shared manager must not stay the parent of this chain's manager: a failed check in the
+        // caching provider would fall through to it and be hashed a second time
+        basicAuthCache.ifAvailable(cache -> {
+            http.getSharedObject(AuthenticationManagerBuilder.class).parentAuthenticationManager(null);
+            http.authenticationProvider(new CachingDaoAuthenticationProvider(userDetailsService, passwordEncoder, cache));
+        });
         http
+                // Bearer runs before Basic: pre-auth stage before the first, principal stage after the last
+                .addFilterBefore(preAuthRateLimitFilter, BearerTokenAuthenticationFilter.class)
+                .addFilterAfter(principalRateLimitFilter, BasicAuthenticationFilter.class)
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource))
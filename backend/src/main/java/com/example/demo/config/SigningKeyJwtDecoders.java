@@ -0,0 +1,107 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.List;
+import java.util.Set;
+
+/** NimbusJwtDecoder that verifies against our own signing keys (RS256, ES256 or EdDSA)
+ NimbusJwtDecoder.withPublicKey() only takes RSA keys, so the Nimbus processor is set up by hand:
+   token header kid + alg → public key of that kid in the JwtKeyRing (only if the alg matches the key) → verify
+ - RS256 / ES256: verified by Nimbus' own verifiers
+ - EdDSA: Nimbus' Ed25519Verifier needs Google Tink; the JDK has Ed25519 built in (Java 15+), so use that
+ Claims are not checked here - AccessTokenValidator (exp, iss, blacklist, aud, token_type) runs after this
+ */
+final class SigningKeyJwtDecoders {
+
+    private SigningKeyJwtDecoders() {
+    }
+
+    static NimbusJwtDecoder create(List<JwtSigningKey> keys) {
+        return create(JwtKeyRing.of(keys));
+    }
+
+    static NimbusJwtDecoder create(JwtKeyRing keyRing) {
+        JWSKeySelector<SecurityContext> keySelector = (header, context) -> {
+            // kid → key is one hash lookup in the ring's current snapshot, never "try every key"
+            JwtSigningKey key = header.getKeyID() != null ? keyRing.find(header.getKeyID())
+                    : keyRing.size() == 1 ? keyRing.active() : null;
+            if (key == null || !key.algorithm().nimbusAlgorithm().equals(header.getAlgorithm())) {
+                return List.of(); // Nimbus rejects the token: no matching key
+            }
+            return List.of(key.publicKey());
+        };
+
+        var processor = new DefaultJWTProcessor<SecurityContext>();
+        processor.setJWSKeySelector(keySelector);
+        processor.setJWSVerifierFactory(new JcaEdDSAVerifierFactory());
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    /** Nimbus' verifier factory, except EdDSA goes to the JDK's Ed25519 */
+    private static final class JcaEdDSAVerifierFactory implements JWSVerifierFactory {
+
+        private final DefaultJWSVerifierFactory nimbus = new DefaultJWSVerifierFactory();
+        private final JCAContext jcaContext = new JCAContext();
+
+        @Override
+        public JWSVerifier createJWSVerifier(JWSHeader header, Key key) throws JOSEException {
+            if (JWSAlgorithm.EdDSA.equals(header.getAlgorithm()) && key instanceof PublicKey publicKey) {
+                return new JcaEdDSAVerifier(publicKey, jcaContext);
+            }
+            return nimbus.createJWSVerifier(header, key);
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256, JWSAlgorithm.EdDSA);
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+
+    private record JcaEdDSAVerifier(PublicKey publicKey, JCAContext jcaContext) implements JWSVerifier {
+
+        @Override
+        public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+            try {
+                Signature verifier = Signature.getInstance(JwtAlgorithm.EdDSA.jcaSignature());
+                verifier.initVerify(publicKey);
+                verifier.update(signingInput);
+                return verifier.verify(signature.decode());
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Ed25519 verification failed: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return Set.of(JWSAlgorithm.EdDSA);
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.provisioning.JdbcUserDetailsManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/** JdbcUserDetailsManager with two changes
+ - loadUserByUsername(): user + authorities in ONE join query instead of two
+   (the default runs "select ... from users" and then "select ... from authorities")
+ - updatePassword(): lets Spring Security store a re-hashed password after login
+   (JdbcUserDetailsManager.changePassword() needs the old password and a logged-in user,
+    this is called by DaoAuthenticationProvider right after the password was verified)
+ */
+public class UpgradableJdbcUserDetailsManager extends JdbcUserDetailsManager implements UserDetailsPasswordService {
+
+    private static final String USER_WITH_AUTHORITIES_QUERY =
+            "select u.username, u.password, u.enabled, a.authority from users u "
+                    + "left join authorities a on a.username = u.username where u.username = ?";
+
+    public UpgradableJdbcUserDetailsManager(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (getEnableGroups() || !getEnableAuthorities()) {
+            return super.loadUserByUsername(username); // non-default setups keep the stock queries
+        }
+        UserDetails user = getJdbcTemplate().query(USER_WITH_AUTHORITIES_QUERY, rs -> {
+            String name = null;
+            String password = null;
+            boolean enabled = false;
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            while (rs.next()) {
+                name = rs.getString(1);
+                password = rs.getString(2);
+                enabled = rs.getBoolean(3);
+                String authority = rs.getString(4);
+                if (authority != null) { // null = user without any row in authorities (left join)
+                    authorities.add(new SimpleGrantedAuthority(getRolePrefix() + authority));
+                }
+            }
+            if (name == null) {
+                return null;
+            }
+            if (authorities.isEmpty()) {
+                throw new UsernameNotFoundException(this.messages.getMessage("JdbcDaoImpl.noAuthority",
+                        new Object[]{username}, "User {0} has no GrantedAuthority"));
+            }
+            return User.withUsername(name).password(password).disabled(!enabled).authorities(authorities).build();
+        }, username);
+        if (user == null) {
+            throw new UsernameNotFoundException(this.messages.getMessage("JdbcDaoImpl.notFound",
+                    new Object[]{username}, "Username {0} not found"));
+        }
+        return user;
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        getJdbcTemplate().update("update users set password = ? where username = ?", newPassword, user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
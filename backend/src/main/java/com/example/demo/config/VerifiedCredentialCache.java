@@ -0,0 +1,106 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/** Remembers username/password pairs that recently passed the BCrypt/Argon2 check (HTTP Basic only)
+ - Basic auth sends the password on EVERY request → without this every request pays a full hash (~100ms+ of CPU)
+ - Key: HMAC-SHA256(random per-process key, username + password) - the plaintext is never stored,
+   and without the key the entries can't be brute-forced offline
+ - Value: the stored hash the password was checked against + expiry (short, app.auth.basic-cache.ttl)
+ - A hit only counts while the user's CURRENT stored hash is still the same one
+   → a password change (or hash upgrade) makes old entries useless immediately,
+     disabled/locked users are still rejected by the provider before the password check
+ - Failed checks are never cached
+ - Bounded: once full, expired entries are purged first, then arbitrary ones
+ */
+public class VerifiedCredentialCache implements MeterBinder {
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final SecretKeySpec hmacKey;
+
+    // HMAC of the credentials → the stored hash they were verified against
+    private final ExpiringCache<String, String> cache;
+
+    // Mac is not thread-safe - one per thread, re-keyed when a different cache instance uses it
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    });
+
+    public VerifiedCredentialCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    VerifiedCredentialCache(int maxEntries, Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cache = new ExpiringCache<>("basic-auth", maxEntries, clock);
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    /** true if this password was verified against exactly {@code currentHash} within the TTL */
+    public boolean isVerified(String username, String password, String currentHash) {
+        return cache.get(cacheKey(username, password), currentHash::equals) != null;
+    }
+
+    /** Call only after the password really matched {@code passwordHash} */
+    public void remember(String username, String password, String passwordHash) {
+        cache.put(cacheKey(username, password), passwordHash, clock.instant().plus(ttl));
+    }
+
+    private String cacheKey(String username, String password) {
+        Mac mac = HMAC.get();
+        try {
+            mac.init(hmacKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0); // separator, so "ab" + "c" and "a" + "bc" differ
+        return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Remove entries older than the TTL
+     * Runs every minute, and also whenever the cache is full
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public int getSize() {
+        return cache.getSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry, "Basic-auth passwords accepted without re-hashing",
+                "Basic-auth passwords that needed a full hash check");
+    }
+}
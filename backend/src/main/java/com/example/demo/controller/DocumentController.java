@@ -1,11 +1,14 @@
 package com.example.demo.controller;
 
+import com.example.demo.dtos.DocumentPage;
 import com.example.demo.model.Document;
 import com.example.demo.service.DocumentService;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,10 +17,14 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/documents")
 public class DocumentController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final DocumentService documentService;
+    private final RoleHierarchy roleHierarchy;
 
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService, RoleHierarchy roleHierarchy) {
         this.documentService = documentService;
+        this.roleHierarchy = roleHierarchy;
     }
 
     // 1. @Secured - Simple role check (OLD STYLE)
@@ -33,7 +40,7 @@ public class DocumentController {
     @PreAuthorize("#owner == authentication.name")
     @GetMapping("/by-owner/{owner}")
     public List<Document> getDocuementByOwner(@PathVariable String owner) {
-        return documentService.findAll().stream().filter(doc -> doc.getOwner().equals(owner)).toList();
+        return documentService.findByOwner(owner); // owner index, no scan
     }
 
     // 3. @PostAuthorize - Check AFTER fetching
@@ -46,24 +53,54 @@ public class DocumentController {
         return doc;
     }
 
-    // 4. @PostFilter - Filter collection automatically
-    // Returns ALL documents but filters to show only user's docs (or all for ADMIN)
-
-    @PostFilter("filterObject.owner == authentication.name or hasRole('ADMIN')")
+    // 4. Filtering in the query instead of @PostFilter
+    // Shows only the user's docs (or all for ADMIN). This used to be
+    //   @PostFilter("filterObject.owner == authentication.name or hasRole('ADMIN')")
+    // which fetched a copy of ALL documents and evaluated the expression once per document;
+    // now it is one index lookup: all documents (admin) or the owner's documents
     @GetMapping("/all")
-    public List<Document> getAllDocuments() {
-        return documentService.findAll();
-        // Spring automatically removes documents user shouldn't see
+    public List<Document> getAllDocuments(Authentication authentication) {
+        return isAdmin(authentication)
+                ? documentService.findAll()
+                : documentService.findByOwner(authentication.getName());
+    }
+
+    // 4b. Same documents as /all, one page at a time (size capped at MAX_PAGE_SIZE)
+    //   ?cursor=<nextCursor of the previous page>   keyset paging, every page costs the same
+    //   ?page=N                                      numbered pages, for jumping to a page
+    // The cursor wins when both are given.
+    @GetMapping("/page")
+    public DocumentPage getDocumentPage(Authentication authentication,
+                                        @RequestParam(required = false) Long cursor,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "20") int size) {
+        int limit = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        String owner = isAdmin(authentication) ? null : authentication.getName();
+        List<Document> items = cursor != null || page <= 0
+                ? documentService.findAfter(owner, cursor, limit)
+                : documentService.findPage(owner, page, limit);
+        return DocumentPage.of(items, limit);
+    }
+
+    // same as hasRole('ADMIN'): through the role hierarchy, a cached lookup (see CachingRoleHierarchy)
+    private boolean isAdmin(Authentication authentication) {
+        for (GrantedAuthority authority : roleHierarchy.getReachableGrantedAuthorities(authentication.getAuthorities())) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     // 5. Complex SpEL expression
     // Create document only if: USER role AND it's a weekday AND owner matches username
+    // (weekday from the cached clock tick in CustomSecurityService, not LocalDate.now() per call)
     @PreAuthorize("hasRole('USER') and " +
-            "T(java.time.LocalDate).now().dayOfWeek.value <= 5 and "+
+            "@customSecurity.isWeekday() and "+
             "authentication.name == #document.owner")
     @PostMapping
     public void createDocument(Document document) {
-        documentService.save(document);
+        documentService.create(document);
     }
 
     // 6. Simple public endpoint for comparison
@@ -1,62 +1,48 @@
 package com.example.demo.controller;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.KeyUse;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.example.demo.config.JwtKeyRing;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.KeyFactory;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
-import java.util.Map;
+import java.time.Duration;
 
 /**  - The JWKS endpoint is publicly accessible (no authentication required)
  - Only the public key is exposed, never the private key
  - The key ID (kid) helps identify which key was used to sign a token
+ - During a key rotation several keys are listed: the new one before it signs, the old one until its tokens expired
+ - The key type follows app.jwt.algorithm: RSA (n, e), EC (crv, x, y) or OKP/Ed25519 (crv, x)
  - This follows the standard JWKS format used by OAuth2/OIDC
  - External services can now fetch your public key to verify tokens
+
+ Resource servers poll this endpoint, so a request does no key or JSON work at all:
+   key ring serializes the JWKS once per key change → byte[] + ETag (SHA-256 of the bytes)
+   GET                        → 200, same bytes, ETag, Cache-Control: max-age (app.jwt.jwks.max-age)
+   GET + If-None-Match: etag  → 304, no body (Spring compares the ETag of the returned ResponseEntity)
  */
 @RestController
 public class JwksController {
 
-    @Value("${app.jwt.public-key-path}")
-    private Resource publicKeyResource;
-
-
-    @GetMapping("/.well-known/jwks.json")
-    public Map<String, Object> getJwks() throws Exception {
-        RSAPublicKey rsaPublicKey = loadPublicKey();
-
-        //Create JWK with keyID
-        RSAKey jwk = new RSAKey.Builder(rsaPublicKey)
-                .keyUse(KeyUse.SIGNATURE)
-                .keyID("demo-key-2025")  // Unique identifier for this key
-                .algorithm(com.nimbusds.jose.JWSAlgorithm.RS256)
-                .build();
+    private final JwtKeyRing keyRing;
+    private final CacheControl cacheControl;
 
-        // Create JWK Set
-        JWKSet jwkSet = new JWKSet(jwk);
-
-        // Return as Map for Spring to serialize
-        return jwkSet.toJSONObject();
+    public JwksController(JwtKeyRing keyRing,
+                          @Value("${app.jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
     }
 
-    private RSAPublicKey loadPublicKey() throws Exception {
-        String key = new String(publicKeyResource.getInputStream().readAllBytes());
-
-        // Remove PEM headers and whitespace
-        key = key.replace("-----BEGIN PUBLIC KEY-----", "")
-                .replace("-----END PUBLIC KEY-----", "")
-                .replaceAll("\\s", "");
-
-        byte[] keyBytes = Base64.getDecoder().decode(key);
-        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-        X509EncodedKeySpec spec = new X509EncodedKeySpec(keyBytes);
-        return (RSAPublicKey) keyFactory.generatePublic(spec);
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> getJwks() {
+        // JWK Set with the public half of every key still accepted (keyID, use=sig, alg), active key first
+        JwtKeyRing.JwksDocument jwks = keyRing.jwksDocument();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(jwks.etag())
+                .cacheControl(cacheControl)
+                .body(jwks.json());
     }
-
 }
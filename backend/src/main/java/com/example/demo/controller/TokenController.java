@@ -1,56 +1,50 @@
 package com.example.demo.controller;
 
 import com.example.demo.dtos.RefreshTokenRequest;
+import com.example.demo.dtos.TokenResponse;
 import com.example.demo.model.RefreshToken;
+import com.example.demo.service.AccessTokenMinter;
+import com.example.demo.service.AuthenticationExecutor;
+import com.example.demo.service.AuthenticationOverloadedException;
 import com.example.demo.service.RefreshTokenService;
 import com.example.demo.service.TokenBlacklistService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.apache.el.parser.Token;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
-import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api")
 public class TokenController {
-    private final AuthenticationManager authenticationManager;
-    private final JwtEncoder encoder;
-    private final String issuer;
-    private final long ttlMinutes;
-    private final String audience;
+    private final AuthenticationExecutor authenticationExecutor;
+    private final AccessTokenMinter tokenMinter;
     private final JwtDecoder decoder;
     private final RefreshTokenService refreshTokenService;
     private final TokenBlacklistService blacklistService;
 
 
-    public TokenController(AuthenticationManager authManager,
-                           JwtEncoder encoder,
+    public TokenController(AuthenticationExecutor authenticationExecutor,
+                           AccessTokenMinter tokenMinter,
                            JwtDecoder decoder,
                            RefreshTokenService refreshTokenService,
-                           TokenBlacklistService blacklistService,
-                           @Value("${app.jwt.issuer}") String issuer,
-                           @Value("${app.jwt.expires-min}") long ttlMinutes,
-                           @Value("${app.jwt.audience}") String audience) {
-        this.authenticationManager = authManager;
-        this.encoder = encoder;
+                           TokenBlacklistService blacklistService) {
+        this.authenticationExecutor = authenticationExecutor;
+        this.tokenMinter = tokenMinter;
         this.decoder = decoder;
-        this.issuer = issuer;
         this.blacklistService = blacklistService;
-        this.ttlMinutes = ttlMinutes;
-        this.audience = audience;
         this.refreshTokenService = refreshTokenService;
     }
 
@@ -59,51 +53,50 @@ public class TokenController {
         @NotBlank public String password;
     }
 
+    /** Login - the password check runs on the AuthenticationExecutor, not on the Tomcat thread
+     * (returning a CompletableFuture frees the request thread until the check is done)
+     * 401 wrong credentials, 503 + Retry-After when too many logins are already queued
+     */
     @PostMapping("/token")
-    public ResponseEntity<?> token(@Valid @RequestBody TokenRequest req) {
-        Authentication auth;
-        try {
-            auth = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(req.username, req.password)
-            );
-        } catch (BadCredentialsException ex) {
+    public CompletableFuture<ResponseEntity<?>> token(@Valid @RequestBody TokenRequest req) {
+        return authenticationExecutor
+                .authenticate(new UsernamePasswordAuthenticationToken(req.username, req.password))
+                .handle((auth, ex) -> ex == null ? issueTokens(auth) : loginFailed(ex));
+    }
+
+    private ResponseEntity<?> loginFailed(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof BadCredentialsException) {
             return ResponseEntity.status(401).body(Map.of(
                     "status", 401,
                     "error", "Unauthorized",
                     "message", "Invalid credentials"
             ));
         }
+        if (cause instanceof AuthenticationOverloadedException) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of(
+                            "status", 503,
+                            "error", "Service Unavailable",
+                            "message", "Too many logins in progress, please retry"
+                    ));
+        }
+        throw cause instanceof RuntimeException re ? re : new CompletionException(cause);
+    }
 
+    private ResponseEntity<?> issueTokens(Authentication auth) {
         var now = Instant.now();
         var roles = auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
 
         try {
-            var claims = JwtClaimsSet.builder()
-                    .issuer(issuer)
-                    .issuedAt(now)
-                    .expiresAt(now.plusSeconds(ttlMinutes * 60))
-                    .subject(auth.getName())
-                    .claim("roles", roles)
-                    .claim("aud", List.of(audience))
-                    .claim("jti", UUID.randomUUID().toString())
-                    .claim("token_type", "access")
-                    .build();
-
-//            var jwsHeader = JwsHeader.with(MacAlgorithm.HS256).build();
-            var jwsHeader = JwsHeader.with(SignatureAlgorithm.RS256)
-                    .keyId("demo-key-2025").build();
-            var token = encoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
+            var token = tokenMinter.mint(auth.getName(), roles, now);
 
             //Create refresh token
             RefreshToken refreshToken = refreshTokenService.createRefreshToken(auth.getName());
 
-            return ResponseEntity.ok(Map.of(
-                    "access_token", token,
-                    "refresh_token", refreshToken.getToken(),
-                    "token_type", "Bearer",
-                    "expires_in", ttlMinutes * 60,
-                    "roles", roles
-            ));
+            return ResponseEntity.ok(TokenResponse.bearer(
+                    token, refreshToken.getToken(), tokenMinter.getTtlSeconds(), roles, null));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of(
                     "status", 500,
@@ -136,30 +129,10 @@ public class TokenController {
         List<String> roles = List.of("ROLE_USER"); // Load actual roles
 
         var now = Instant.now();
-        var claims = JwtClaimsSet.builder()
-                .issuer(issuer)
-                .issuedAt(now)
-                .expiresAt(now.plusSeconds(ttlMinutes* 60))
-                .claim("roles", roles)
-                .claim("aud", List.of(audience))
-                .claim("jti", UUID.randomUUID().toString())
-                .claim("token_type", "access")
-                .build();
-
-        // Creates actual New token using algorithm HS256
-//        var jwsheader = JwsHeader.with(MacAlgorithm.HS256).build();
-        var jwsheader = JwsHeader.with(SignatureAlgorithm.RS256)
-                .keyId("demo-key-2025").build();
-        var token = encoder.encode(JwtEncoderParameters.from(jwsheader, claims)).getTokenValue();
-
-        return ResponseEntity.status(200).body(Map.of(
-                "access_token", token,
-                "refresh_token",newRefreshToken.getToken(),
-                "token_type", "Bearer",
-                "expires_in", ttlMinutes * 60,
-                "roles", roles,
-                "refreshed_at", now.toString()
-        ));
+        var token = tokenMinter.mint(userName, roles, now);
+
+        return ResponseEntity.status(200).body(TokenResponse.bearer(
+                token, newRefreshToken.getToken(), tokenMinter.getTtlSeconds(), roles, now.toString()));
     }
 
     @PostMapping("/logout")
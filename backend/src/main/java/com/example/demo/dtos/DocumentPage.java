@@ -0,0 +1,14 @@
+package com.example.demo.dtos;
+
+import com.example.demo.model.Document;
+
+import java.util.List;
+
+/** Body of /api/documents/page: one page plus the cursor for the next one (null on the last page) */
+public record DocumentPage(List<Document> items, Long nextCursor) {
+
+    public static DocumentPage of(List<Document> items, int size) {
+        Long next = items.size() < size ? null : items.get(items.size() - 1).getId();
+        return new DocumentPage(items, next);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/** Body of /api/token and /api/token/refresh (a fixed record serializes cheaper than a Map per response) */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenResponse(
+        @JsonProperty("access_token") String accessToken,
+        @JsonProperty("refresh_token") String refreshToken,
+        @JsonProperty("token_type") String tokenType,
+        @JsonProperty("expires_in") long expiresIn,
+        List<String> roles,
+        @JsonProperty("refreshed_at") String refreshedAt) {
+
+    public static TokenResponse bearer(String accessToken, String refreshToken, long expiresIn,
+                                       List<String> roles, String refreshedAt) {
+        return new TokenResponse(accessToken, refreshToken, "Bearer", expiresIn, roles, refreshedAt);
+    }
+}
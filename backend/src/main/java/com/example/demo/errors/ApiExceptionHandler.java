@@ -3,6 +3,7 @@ package com.example.demo.errors;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
@@ -37,6 +38,13 @@ public class ApiExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
 
+    // store busy or stalled (e.g. refresh token writer timed out) - worth a retry
+    @ExceptionHandler(TransientDataAccessException.class)
+    public ResponseEntity<ApiError> handleTransientDataAccess(TransientDataAccessException e, HttpServletRequest req) {
+        var body = new ApiError(503, "Service Unavailable", "Try again later", req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
+
     @ExceptionHandler(AuthorizationDeniedException.class)
     public ResponseEntity<ApiError> handleAuthorizationDenied(AuthorizationDeniedException e, HttpServletRequest req) {
         var body = new ApiError(403, "Forbidden", "Access denied", req.getRequestURI());
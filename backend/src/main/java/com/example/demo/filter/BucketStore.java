@@ -0,0 +1,121 @@
+package com.example.demo.filter;
+
+import io.github.bucket4j.Bucket;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/** Rate-limit buckets per key (IP or username), bounded and idle-expiring
+ - A bucket that was not touched for a whole refill period is full again,
+   i.e. exactly what a new bucket would be → it can be dropped without changing any limit
+ - So idle buckets are removed by evictIdle() (scheduled by RateLimitingFilter)
+ - Bounded: when full, idle buckets go first, then the least recently used 10%
+   (scanners with rotating IPs can't grow the heap any more)
+ */
+public class BucketStore {
+
+    private static final class Entry {
+        final Bucket bucket;
+        volatile long lastAccessMillis;
+
+        Entry(Bucket bucket, long now) {
+            this.bucket = bucket;
+            this.lastAccessMillis = now;
+        }
+    }
+
+    private record Candidate(String key, Entry entry, long lastAccessMillis) {}
+
+    private final Function<String, Bucket> bucketFactory;
+    private final long idleMillis;
+    private final int maxBuckets;
+    private final Clock clock;
+
+    private final Map<String, Entry> buckets = new ConcurrentHashMap<>();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public BucketStore(Function<String, Bucket> bucketFactory, Duration refillPeriod, int maxBuckets) {
+        this(bucketFactory, refillPeriod, maxBuckets, Clock.systemUTC());
+    }
+
+    BucketStore(Function<String, Bucket> bucketFactory, Duration refillPeriod, int maxBuckets, Clock clock) {
+        this.bucketFactory = bucketFactory;
+        this.idleMillis = refillPeriod.toMillis();
+        this.maxBuckets = maxBuckets;
+        this.clock = clock;
+    }
+
+    public Bucket resolve(String key) {
+        long now = clock.millis();
+        Entry entry = buckets.get(key);
+        if (entry == null) {
+            if (buckets.size() >= maxBuckets) {
+                makeRoom(now);
+            }
+            entry = buckets.computeIfAbsent(key, k -> new Entry(bucketFactory.apply(k), now));
+        }
+        entry.lastAccessMillis = now;
+        return entry.bucket;
+    }
+
+    /** Remove buckets that have been idle for a full refill period, returns how many were removed */
+    public int evictIdle() {
+        return evictIdle(clock.millis());
+    }
+
+    private int evictIdle(long now) {
+        int removed = 0;
+        for (Map.Entry<String, Entry> e : buckets.entrySet()) {
+            Entry entry = e.getValue();
+            // remove(key, value): a concurrent resolve() that re-created the key is left alone
+            if (now - entry.lastAccessMillis >= idleMillis && buckets.remove(e.getKey(), entry)) {
+                removed++;
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    private void makeRoom(long now) {
+        // One thread cleans up, the others just go on (the map may briefly exceed the bound)
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evictIdle(now);
+            if (buckets.size() < maxBuckets) {
+                return;
+            }
+            // Still full of active keys: drop the least recently used down to 90%
+            // (sorted on a snapshot of the access times - they keep changing under us)
+            List<Candidate> byAge = new ArrayList<>(buckets.size());
+            buckets.forEach((key, entry) -> byAge.add(new Candidate(key, entry, entry.lastAccessMillis)));
+            byAge.sort(Comparator.comparingLong(Candidate::lastAccessMillis));
+            int excess = buckets.size() - (int) (maxBuckets * 9L / 10);
+            for (int i = 0; i < excess && i < byAge.size(); i++) {
+                if (buckets.remove(byAge.get(i).key(), byAge.get(i).entry())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+}
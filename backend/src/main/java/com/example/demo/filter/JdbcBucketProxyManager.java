@@ -0,0 +1,98 @@
+package com.example.demo.filter;
+
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/** Bucket4j proxy manager on a plain JDBC table ("rate_limit_buckets", see schema.sql)
+ Bucket4j ships JDBC modules only for specific databases, this one works on anything JdbcTemplate talks to.
+
+ Every state change is an optimistic compare-and-swap on a version column:
+   select state, version where id = ?
+   → Bucket4j applies the command to the state locally
+   → update ... set state = ?, version = version + 1 where id = ? and version = <what we read>
+   → 0 rows: another replica was faster, Bucket4j re-reads and retries
+ A bucket that does not exist yet is inserted, a duplicate key means someone else created it first.
+
+ expires_at = when the bucket will be full again, after that the row is the same as no row → deleteExpired()
+ */
+public class JdbcBucketProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcBucketProxyManager(DataSource dataSource) {
+        super(ClientSideConfig.getDefault());
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            private long version;
+
+            @Override
+            public Optional<byte[]> getStateData() {
+                List<byte[]> rows = jdbc.query("select state, version from rate_limit_buckets where id = ?",
+                        (rs, rowNum) -> {
+                            version = rs.getLong("version");
+                            return rs.getBytes("state");
+                        }, key);
+                return rows.stream().findFirst();
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                long expiresAt = expiresAtMillis(newState);
+                if (originalData == null) {
+                    try {
+                        return jdbc.update("insert into rate_limit_buckets(id, state, version, expires_at) values (?, ?, 0, ?)",
+                                key, newData, expiresAt) == 1;
+                    } catch (DuplicateKeyException e) {
+                        return false;
+                    }
+                }
+                return jdbc.update("update rate_limit_buckets set state = ?, version = version + 1, expires_at = ? where id = ? and version = ?",
+                        newData, expiresAt, key, version) == 1;
+            }
+        };
+    }
+
+    private long expiresAtMillis(RemoteBucketState state) {
+        long nowNanos = getClientSideTime();
+        return (nowNanos + state.calculateFullRefillingTime(nowNanos)) / 1_000_000;
+    }
+
+    /** Remove buckets that are full again (same as not existing), returns how many were removed */
+    public int deleteExpired() {
+        return jdbc.update("delete from rate_limit_buckets where expires_at < ?", System.currentTimeMillis());
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        jdbc.update("delete from rate_limit_buckets where id = ?", key);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return false;
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        throw new UnsupportedOperationException("JdbcBucketProxyManager is synchronous only");
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        throw new UnsupportedOperationException("JdbcBucketProxyManager is synchronous only");
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.demo.filter;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/** Distributed rate limiting (app.rate-limit.mode=jdbc) - one bucket per key for ALL replicas
+ Without help every request would be a database round trip (select + compare-and-swap update), so
+ each replica consumes tokens locally and syncs with the database only every
+ max-unsynchronized-tokens tokens or max-unsynchronized-timeout, whichever comes first
+ (Bucket4j "delaying" optimization).
+ Trade-off: across N replicas a client can overshoot the limit by up to N × max-unsynchronized-tokens.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.mode", havingValue = "jdbc")
+public class JdbcRateLimitBucketFactory implements RateLimitBucketFactory {
+
+    private final JdbcBucketProxyManager proxyManager;
+    private final Optimization optimization;
+
+    public JdbcRateLimitBucketFactory(DataSource dataSource,
+                                      @Value("${app.rate-limit.jdbc.max-unsynchronized-tokens:10}") long maxUnsynchronizedTokens,
+                                      @Value("${app.rate-limit.jdbc.max-unsynchronized-timeout:1s}") Duration maxUnsynchronizedTimeout) {
+        this.proxyManager = new JdbcBucketProxyManager(dataSource);
+        this.optimization = Optimizations.delaying(new DelayParameters(maxUnsynchronizedTokens, maxUnsynchronizedTimeout));
+    }
+
+    @Override
+    public Bucket create(String key, BucketConfiguration configuration) {
+        // The proxy keeps the locally consumed tokens, so it is cached per key by BucketStore
+        return proxyManager.builder()
+                .withOptimization(optimization)
+                .build(key, () -> configuration);
+    }
+
+    /**
+     * Drop database rows of buckets that are full again
+     * Runs every minute
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void deleteExpiredBuckets() {
+        proxyManager.deleteExpired();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.filter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+
+/** Creates the bucket behind one rate-limit key ("ip:10.0.0.1", "user:alice", ...)
+ - local():                      bucket lives in this JVM (default) - with N replicas a client gets N × the limit
+ - JdbcRateLimitBucketFactory:   app.rate-limit.mode=jdbc, bucket state shared by all replicas through the database
+ */
+public interface RateLimitBucketFactory {
+
+    Bucket create(String key, BucketConfiguration configuration);
+
+    static RateLimitBucketFactory local() {
+        return (key, configuration) -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : configuration.getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        };
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.demo.filter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConfigurationBuilder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/** The rate-limit rules of one stage (RateLimitProperties.Stage), compiled once at startup
+ Per request:
+   1. roleMask(auth)  - one pass over the authorities → bit set of the roles the rules care about
+   2. select(...)     - first rule whose role bit, method bit and path segments match
+ Both only compare precomputed bits and walk the request URI in place - nothing is allocated.
+ Exception: a URI with '%' or ';' is first decoded and normalized like Spring MVC does before dispatching
+ (otherwise POST /api/%74oken would reach /api/token without hitting the login rule)
+ */
+public class RateLimitPolicy {
+
+    private static final int ANONYMOUS = 1;
+    private static final int AUTHENTICATED = 1 << 1;
+
+    private final Rule[] rules;
+    private final Map<String, Integer> roleBits = new HashMap<>(); // "ROLE_ADMIN" → bit
+
+    public RateLimitPolicy(RateLimitProperties properties, RateLimitProperties.Stage stage) {
+        List<RateLimitProperties.Rule> configured = properties.rules() != null ? properties.rules() : List.of();
+        List<Rule> compiled = new ArrayList<>(configured.size());
+        for (RateLimitProperties.Rule rule : configured) {
+            if (rule.stage() != stage) {
+                continue;
+            }
+            if (stage == RateLimitProperties.Stage.PRE_AUTH
+                    && ((rule.role() != null && !rule.role().isBlank()) || rule.key() != RateLimitProperties.KeyType.IP)) {
+                // nobody is authenticated yet - only the IP is known
+                throw new IllegalArgumentException("Pre-auth rate-limit rule '" + rule.name() + "' can only be keyed by ip, without role");
+            }
+            compiled.add(compile(rule));
+        }
+        this.rules = compiled.toArray(new Rule[0]);
+    }
+
+    /** One compiled rule - immutable, shared by all requests */
+    public static final class Rule {
+        private final String name;
+        private final int roleMask;     // 0 = anyone
+        private final int methodMask;   // all bits = all methods
+        private final PathPattern path;
+        private final RateLimitProperties.KeyType key;
+        private final BucketConfiguration configuration;
+        private final long limit;       // capacity of the tightest bandwidth
+        private final String policyHeader;
+        private final Duration fullRefill;
+
+        private Rule(String name, int roleMask, int methodMask, PathPattern path, RateLimitProperties.KeyType key,
+                     BucketConfiguration configuration, long limit, String policyHeader, Duration fullRefill) {
+            this.name = name;
+            this.roleMask = roleMask;
+            this.methodMask = methodMask;
+            this.path = path;
+            this.key = key;
+            this.configuration = configuration;
+            this.limit = limit;
+            this.policyHeader = policyHeader;
+            this.fullRefill = fullRefill;
+        }
+
+        public String getName() { return name; }
+        public RateLimitProperties.KeyType getKey() { return key; }
+        public BucketConfiguration getConfiguration() { return configuration; }
+        public long getLimit() { return limit; }
+        /** e.g. "5;w=1, 20;w=60" */
+        public String getPolicyHeader() { return policyHeader; }
+        /** time an untouched bucket needs to be full again */
+        public Duration getFullRefill() { return fullRefill; }
+    }
+
+    public Rule[] getRules() {
+        return rules;
+    }
+
+    public int roleMask(Authentication auth) {
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return ANONYMOUS;
+        }
+        int mask = AUTHENTICATED;
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            Integer bit = roleBits.get(authority.getAuthority());
+            if (bit != null) {
+                mask |= bit;
+            }
+        }
+        return mask;
+    }
+
+    public static boolean isAnonymous(int roleMask) {
+        return (roleMask & ANONYMOUS) != 0;
+    }
+
+    /** @return the first matching rule, or null if the request is not limited */
+    public Rule select(HttpServletRequest request, int roleMask) {
+        int method = methodBit(request.getMethod());
+        String uri = request.getRequestURI();
+        int from = request.getContextPath().length();
+        if (uri.indexOf('%') >= 0 || uri.indexOf(';') >= 0) {
+            uri = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+            from = 0;
+        }
+        for (Rule rule : rules) {
+            if ((rule.roleMask == 0 || (rule.roleMask & roleMask) != 0)
+                    && (rule.methodMask & method) != 0
+                    && rule.path.matches(uri, from)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private Rule compile(RateLimitProperties.Rule rule) {
+        if (rule.limits() == null || rule.limits().isEmpty()) {
+            throw new IllegalArgumentException("Rate-limit rule '" + rule.name() + "' has no limits");
+        }
+        ConfigurationBuilder configuration = BucketConfiguration.builder();
+        StringJoiner policy = new StringJoiner(", ");
+        long limit = Long.MAX_VALUE;
+        Duration fullRefill = Duration.ZERO;
+        for (RateLimitProperties.Limit l : rule.limits()) {
+            long refillTokens = l.refillTokens() > 0 ? l.refillTokens() : l.capacity();
+            var capacity = Bandwidth.builder().capacity(l.capacity());
+            configuration.addLimit(l.greedy()
+                    ? capacity.refillGreedy(refillTokens, l.period()).build()
+                    : capacity.refillIntervally(refillTokens, l.period()).build());
+            policy.add(l.capacity() + ";w=" + l.period().toSeconds());
+            limit = Math.min(limit, l.capacity());
+            // periods needed to refill from empty, rounded up
+            Duration refillTime = l.period().multipliedBy((l.capacity() + refillTokens - 1) / refillTokens);
+            if (refillTime.compareTo(fullRefill) > 0) {
+                fullRefill = refillTime;
+            }
+        }
+        return new Rule(rule.name(), roleBit(rule.role()), methodMask(rule.methods()), PathPattern.compile(rule.path()),
+                rule.key(), configuration.build(), limit, policy.toString(), fullRefill);
+    }
+
+    private int roleBit(String role) {
+        if (role == null || role.isBlank()) {
+            return 0;
+        }
+        if (role.equalsIgnoreCase("anonymous")) {
+            return ANONYMOUS;
+        }
+        if (role.equalsIgnoreCase("authenticated")) {
+            return AUTHENTICATED;
+        }
+        String authority = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+        if (roleBits.size() >= 30) {
+            throw new IllegalArgumentException("Too many distinct roles in rate-limit rules");
+        }
+        return roleBits.computeIfAbsent(authority, a -> 1 << (roleBits.size() + 2));
+    }
+
+    private static int methodMask(List<String> methods) {
+        if (methods == null || methods.isEmpty()) {
+            return -1;
+        }
+        int mask = 0;
+        for (String method : methods) {
+            mask |= methodBit(method.toUpperCase(Locale.ROOT));
+        }
+        return mask;
+    }
+
+    private static int methodBit(String method) {
+        return switch (method) {
+            case "GET" -> 1;
+            case "POST" -> 1 << 1;
+            case "PUT" -> 1 << 2;
+            case "DELETE" -> 1 << 3;
+            case "PATCH" -> 1 << 4;
+            case "HEAD" -> 1 << 5;
+            case "OPTIONS" -> 1 << 6;
+            default -> 1 << 7;
+        };
+    }
+
+    /** Ant-style path pattern, pre-split into segments
+     "/api/token" exact, "*" matches one segment, a trailing "**" matches everything below (and the path itself) */
+    static final class PathPattern {
+        private static final String ONE = "*";
+        private static final String REST = "**";
+
+        private final String[] segments;
+
+        private PathPattern(String[] segments) {
+            this.segments = segments;
+        }
+
+        static PathPattern compile(String pattern) {
+            if (pattern == null || !pattern.startsWith("/")) {
+                throw new IllegalArgumentException("Rate-limit path must start with '/': " + pattern);
+            }
+            String[] parts = pattern.equals("/") ? new String[0] : pattern.substring(1).split("/");
+            for (int i = 0; i < parts.length; i++) {
+                if (parts[i].equals(REST)) {
+                    if (i != parts.length - 1) {
+                        throw new IllegalArgumentException("'**' is only supported at the end: " + pattern);
+                    }
+                    parts[i] = REST; // interned, compared with ==
+                } else if (parts[i].equals(ONE)) {
+                    parts[i] = ONE;
+                }
+            }
+            return new PathPattern(parts);
+        }
+
+        boolean matches(String path, int from) {
+            int pos = from;
+            int length = path.length();
+            for (String segment : segments) {
+                if (segment == REST) {
+                    return pos == length || path.charAt(pos) == '/';
+                }
+                if (pos >= length || path.charAt(pos) != '/') {
+                    return false;
+                }
+                pos++;
+                int end = path.indexOf('/', pos);
+                if (end < 0) {
+                    end = length;
+                }
+                if (segment == ONE) {
+                    if (end == pos) {
+                        return false;
+                    }
+                } else if (end - pos != segment.length() || !path.regionMatches(pos, segment, 0, segment.length())) {
+                    return false;
+                }
+                pos = end;
+            }
+            return pos == length || (segments.length == 0 && pos == length - 1);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.filter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/** app.rate-limit.* from application.yaml
+ rules are checked top to bottom, the first one matching role + path + method applies
+ (no matching rule = request is not limited)
+
+   rules:
+     - name: login
+       stage: pre-auth          # pre-auth: per IP, before any password / JWT check | principal (default): after it
+       role: anonymous          # anonymous | authenticated | ADMIN, USER, ... (without ROLE_) | empty = anyone
+       path: /api/token         # exact, "*" = one segment, trailing "/**" = everything below
+       methods: [POST]          # empty = all methods
+       key: ip                  # ip | user (falls back to ip when not logged in)
+       limits:                  # all must allow the request, e.g. burst + sustained
+         - { capacity: 5,  period: 1s }
+         - { capacity: 20, period: 1m }
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(@DefaultValue("100000") int maxBuckets, List<Rule> rules) {
+
+    public enum KeyType { IP, USER }
+
+    public enum Stage { PRE_AUTH, PRINCIPAL }
+
+    public record Rule(String name, @DefaultValue("principal") Stage stage, String role,
+                       @DefaultValue("/**") String path, List<String> methods,
+                       @DefaultValue("ip") KeyType key, List<Limit> limits) {}
+
+    /** capacity tokens, refilled with refillTokens (default: capacity) every period
+     greedy = refill continuously (smooth), otherwise all at once at the end of each period */
+    public record Limit(long capacity, long refillTokens, Duration period, boolean greedy) {}
+}
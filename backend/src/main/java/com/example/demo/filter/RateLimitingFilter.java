@@ -1,108 +1,133 @@
 package com.example.demo.filter;
 
-import com.nimbusds.jose.proc.SecurityContext;
-import io.github.bucket4j.Bandwidth;
+import com.example.demo.errors.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 // This creates a rate limiter that:
-//  - Allows 100 requests per minute per IP address
-//  - Returns 429 (Too Many Requests) when limit exceeded
-//  - Tracks each IP address separately
+//  - Applies the rules of app.rate-limit.rules (application.yaml), e.g. 1000/min for admins,
+//    200/min for users, 60/min per IP for anonymous callers, burst + sustained limit on login
+//  - Returns 429 (Too Many Requests) with Retry-After when limit exceeded
+//  - Tracks each IP address / user separately
 
 // OncePerRequestFilter ensures filter runs only once per request
 
-// 1. Runs BEFORE authentication - Even unauthenticated requests are rate-limited
-//  2. Per-IP tracking - Each IP address has its own limit
-//  3. Memory storage - Limits are lost on server restart
-//  4. No database needed - Everything in ConcurrentHashMap
-
-@Component
-public class RateLimitingFilter extends OncePerRequestFilter {
-
-    // Store buckets per IP address. Accepts 100 request from each IP.
-    // Bucket refills to 100 tokens every minute
-    //ADMIN 1000/min, USER 200/min, IP 60/min
-    private final Map<String, Bucket> ipCache = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> userCache = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> adminCache = new ConcurrentHashMap<>();
-
+// Two instances = two stages inside the security filter chain (see RateLimitConfig / SecurityConfig):
+//   PRE_AUTH   → before BasicAuthenticationFilter / BearerTokenAuthenticationFilter
+//                per-IP rules only, a flood is rejected before any bcrypt / RSA work
+//   PRINCIPAL  → after BearerTokenAuthenticationFilter, the JWT / Basic principal is known
+//                per-user and per-role rules
+//  - Memory storage - Limits are lost on server restart
+//  - Everything in a BucketStore (bounded map, idle buckets are dropped)
+//     (optional: app.rate-limit.mode=jdbc shares the buckets of all replicas, see JdbcRateLimitBucketFactory)
+
+// Headers (IETF RateLimit header fields draft):
+//   RateLimit-Policy: 5;w=1, 20;w=60   RateLimit-Limit: 5   RateLimit-Remaining: 3   RateLimit-Reset: 1
+//   + Retry-After: <seconds> on 429
+
+public class RateLimitingFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final RateLimitPolicy policy;
+    private final RateLimitBucketFactory bucketFactory;
+    // One bucket store per rule (identity map: get() allocates nothing)
+    private final Map<RateLimitPolicy.Rule, BucketStore> buckets = new IdentityHashMap<>();
+    private final ObjectMapper om = new ObjectMapper().findAndRegisterModules();
+
+    public RateLimitingFilter(RateLimitProperties.Stage stage, RateLimitProperties properties,
+                              ObjectProvider<RateLimitBucketFactory> bucketFactory) {
+        // No distributed factory configured → buckets live in this JVM
+        this.bucketFactory = bucketFactory.getIfAvailable(RateLimitBucketFactory::local);
+        this.policy = new RateLimitPolicy(properties, stage);
+        for (RateLimitPolicy.Rule rule : policy.getRules()) {
+            buckets.put(rule, new BucketStore(key -> newBucket(rule, key), rule.getFullRefill(), properties.maxBuckets()));
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         Authentication auth  = SecurityContextHolder.getContext().getAuthentication();
-        Bucket bucket;
-        String rateLimitInfo;
-
-        if (auth != null && auth.isAuthenticated() && !auth.getPrincipal().equals("anonymousUser")) {
-            boolean isAdmin = auth.getAuthorities().stream().map(GrantedAuthority::getAuthority )
-                    .anyMatch(role -> role.equals("ROLE_ADMIN"));
-
-            if (isAdmin) {
-                //admin per 1000 reqest per minute
-                bucket = adminCache.computeIfAbsent(auth.getName(), this::newAdminBucket);
-                rateLimitInfo = "ADMIN (1000/min)";
-            } else {
-                bucket = userCache.computeIfAbsent(auth.getName(),this::newUserBucket);
-                rateLimitInfo = "USER (200/min)";
-            }
-        } else {
-            String ip = getClientIP(request);
-            bucket = ipCache.computeIfAbsent(ip, this::newIpBucket);
-            rateLimitInfo = "IP (60/min)";
+        int roleMask = policy.roleMask(auth);
+        RateLimitPolicy.Rule rule = policy.select(request, roleMask);
+        if (rule == null) {
+            filterChain.doFilter(request, response); // no rule for this request
+            return;
         }
 
-        if (bucket.tryConsume(1)) {
-            // Add rate limit info header
-            response.addHeader("X-Rate-Limit-Type", rateLimitInfo);
+        String key = rule.getKey() == RateLimitProperties.KeyType.USER && !RateLimitPolicy.isAnonymous(roleMask)
+                ? auth.getName()
+                : getClientIP(request);
+        Bucket bucket = buckets.get(rule).resolve(key);
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+
+        response.setHeader("RateLimit-Policy", rule.getPolicyHeader());
+        response.setHeader("RateLimit-Limit", Long.toString(rule.getLimit()));
+        response.setHeader("RateLimit-Remaining", Long.toString(probe.getRemainingTokens()));
+        response.setHeader("RateLimit-Reset", Long.toString(toSeconds(probe.getNanosToWaitForReset())));
+
+        if (probe.isConsumed()) {
             filterChain.doFilter(request, response);
         } else {
             // Too many requests
+            long retryAfter = toSeconds(probe.getNanosToWaitForRefill());
+            response.setHeader("Retry-After", Long.toString(retryAfter));
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType("application/json");
-            response.getWriter().write(String.format(
-                    "{\"error\": \"Too many requests. Rate limit: %s. Please try again later.\"}",
-                    rateLimitInfo));
+            var body = new ApiError(429, "Too Many Requests",
+                    "Rate limit '" + rule.getName() + "' exceeded. Retry after " + retryAfter + "s.",
+                    request.getRequestURI());
+            om.writeValue(response.getOutputStream(), body);
         }
     }
 
-    private Bucket newIpBucket(String ip) {
-        // 100 requests per minute per IP
-        Bandwidth limit = Bandwidth.classic(60, Refill.intervally(60, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    private Bucket newBucket(RateLimitPolicy.Rule rule, String key) {
+        return bucketFactory.create(rule.getName() + ":" + key, rule.getConfiguration());
     }
 
-    private Bucket newUserBucket(String ip) {
-        // 100 requests per minute per IP
-        Bandwidth limit = Bandwidth.classic(200, Refill.intervally(200, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1); // rounded up
     }
 
-    private Bucket newAdminBucket(String ip) {
-        // 100 requests per minute per IP
-        Bandwidth limit = Bandwidth.classic(1000, Refill.intervally(1000, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    /**
+     * Drop buckets that were idle until full again (same as a new one)
+     * Runs every minute
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        buckets.values().forEach(BucketStore::evictIdle);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        buckets.forEach((rule, store) -> {
+            Gauge.builder("rate.limit.buckets", store, BucketStore::size)
+                    .tag("rule", rule.getName())
+                    .description("Live rate-limit buckets")
+                    .register(registry);
+            FunctionCounter.builder("rate.limit.evictions", store, BucketStore::getEvictionCount)
+                    .tag("rule", rule.getName())
+                    .description("Rate-limit buckets dropped because idle or over the bound")
+                    .register(registry);
+        });
     }
 
     private String getClientIP(HttpServletRequest request) {
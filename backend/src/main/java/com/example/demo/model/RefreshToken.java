@@ -1,60 +1,72 @@
 package com.example.demo.model;
 
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
 
+/** A refresh token - immutable except for its state, which only moves forward:
+ ACTIVE → USED     (markUsed: exactly one caller wins the compare-and-set, that one may rotate)
+ ACTIVE → REVOKED  (revoke: family killed because of reuse / logout)
+ USED   → REVOKED
+ */
 public class RefreshToken {
-    private String token;
-    private String username;
-    private Instant expiresAt;
-    private boolean used;
-    private String tokenFamily; // For rotation tracking
+
+    public enum State { ACTIVE, USED, REVOKED }
+
+    private final String token;
+    private final String username;
+    private final Instant expiresAt;
+    private final String tokenFamily; // For rotation tracking
+    private final AtomicReference<State> state;
 
     // Constructor
     public RefreshToken(String token, String username, Instant expiresAt) {
+        this(token, username, expiresAt, token); // Initial family ID
+    }
+
+    // Constructor for a rotated token - stays in the family of the token it replaces
+    public RefreshToken(String token, String username, Instant expiresAt, String tokenFamily) {
+        this(token, username, expiresAt, tokenFamily, false);
+    }
+
+    // Constructor for a token loaded from storage
+    public RefreshToken(String token, String username, Instant expiresAt, String tokenFamily, boolean used) {
         this.token = token;
         this.username = username;
         this.expiresAt = expiresAt;
-        this.used = false;
-        this.tokenFamily = token; // Initial family ID
+        this.tokenFamily = tokenFamily;
+        this.state = new AtomicReference<>(used ? State.USED : State.ACTIVE);
     }
 
     public String getToken() {
         return token;
     }
 
-    public void setToken(String token) {
-        this.token = token;
-    }
-
     public String getUsername() {
         return username;
     }
 
-    public void setUsername(String username) {
-        this.username = username;
-    }
-
     public Instant getExpiresAt() {
         return expiresAt;
     }
 
-    public void setExpiresAt(Instant expiresAt) {
-        this.expiresAt = expiresAt;
+    public String getTokenFamily() {
+        return tokenFamily;
     }
 
-    public boolean isUsed() {
-        return used;
+    public State getState() {
+        return state.get();
     }
 
-    public void setUsed(boolean used) {
-        this.used = used;
+    public boolean isUsed() {
+        return state.get() != State.ACTIVE;
     }
 
-    public String getTokenFamily() {
-        return tokenFamily;
+    /** @return true only for the one caller that moved this token from ACTIVE to USED */
+    public boolean markUsed() {
+        return state.compareAndSet(State.ACTIVE, State.USED);
     }
 
-    public void setTokenFamily(String tokenFamily) {
-        this.tokenFamily = tokenFamily;
+    public void revoke() {
+        state.set(State.REVOKED);
     }
 }
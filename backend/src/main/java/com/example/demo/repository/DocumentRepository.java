@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Document;
+
+import java.util.List;
+import java.util.Optional;
+
+/** Storage for documents
+ - InMemoryDocumentRepository: default, documents are lost on restart (single node only)
+ - JdbcDocumentRepository: "jdbc" profile, documents in the "documents" table, shared by all nodes
+
+ Every listing is ordered by id. An owner of null means "all owners" (what an admin sees).
+ Two ways to page through a listing:
+   keyset:  findAfter(owner, lastIdOfPreviousPage, limit)   cost depends on the page size only
+   offset:  findPage(owner, offset, limit)                   skips offset rows first, fine for the first pages
+ */
+public interface DocumentRepository {
+
+    Optional<Document> findById(Long id);
+
+    /**
+     * Replace the stored document with the same id, or insert it under a new id when its id is null or not stored
+     * (the returned document carries it)
+     */
+    Document save(Document document);
+
+    List<Document> findAll();
+
+    List<Document> findByOwner(String owner);
+
+    /** Up to {@code limit} documents with an id greater than {@code afterId} (null = from the start) */
+    List<Document> findAfter(String owner, Long afterId, int limit);
+
+    /** Up to {@code limit} documents, skipping the first {@code offset} */
+    List<Document> findPage(String owner, long offset, int limit);
+
+    long count();
+}
@@ -0,0 +1,118 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** In-memory documents (default when the "jdbc" profile is not active), indexed by id and by owner
+ - byId:    id → document
+ - byOwner: owner → that owner's documents   ("documents owned by X" is one lookup, no scan)
+ - all:     every document                   (what an admin sees)
+ Reads hand out the stored immutable lists (no copy per request); save() rebuilds the lists it touches.
+ Writes are rare here, so they are serialized and pay for the copies instead of the reads.
+ Pages are views of those lists: the start is a binary search on the id (keyset) or the offset itself.
+ */
+@Repository
+@Profile("!jdbc")
+public class InMemoryDocumentRepository implements DocumentRepository {
+
+    private static final Comparator<Document> BY_ID = Comparator.comparing(Document::getId);
+
+    private final Map<Long, Document> byId = new ConcurrentHashMap<>();
+    private final Map<String, List<Document>> byOwner = new ConcurrentHashMap<>();
+    private volatile List<Document> all = List.of();
+    private long maxId;
+
+    public InMemoryDocumentRepository() {
+        // Initialize with sample data (the jdbc profile gets the same rows from data.sql)
+        save(new Document(1L, "Admin Report", "Secret admin content", "admin"));
+        save(new Document(2L, "User Guide", "How to use the app", "user"));
+        save(new Document(3L, "Manager Notes", "Team performance", "manager"));
+        save(new Document(4L, "Public Doc", "Everyone can see", "user"));
+    }
+
+    @Override
+    public Optional<Document> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(byId.get(id));
+    }
+
+    @Override
+    public List<Document> findAll() {
+        return all;
+    }
+
+    @Override
+    public List<Document> findByOwner(String owner) {
+        return owner == null ? List.of() : byOwner.getOrDefault(owner, List.of());
+    }
+
+    @Override
+    public List<Document> findAfter(String owner, Long afterId, int limit) {
+        List<Document> docs = owner == null ? all : findByOwner(owner);
+        int from = afterId == null ? 0 : firstAfter(docs, afterId);
+        return docs.subList(from, Math.min(docs.size(), from + limit));
+    }
+
+    @Override
+    public List<Document> findPage(String owner, long offset, int limit) {
+        List<Document> docs = owner == null ? all : findByOwner(owner);
+        int from = (int) Math.min(docs.size(), offset);
+        return docs.subList(from, Math.min(docs.size(), from + limit));
+    }
+
+    @Override
+    public long count() {
+        return byId.size();
+    }
+
+    @Override
+    public synchronized Document save(Document doc) {
+        if (doc.getId() == null || !byId.containsKey(doc.getId())) {
+            doc.setId(++maxId); // new document: next free id, never one chosen by the caller
+        }
+        Document previous = byId.put(doc.getId(), doc);
+        if (previous != null && previous.getOwner() != null) {
+            byOwner.computeIfPresent(previous.getOwner(), (owner, docs) -> {
+                List<Document> remaining = docs.stream().filter(d -> d != previous).toList();
+                return remaining.isEmpty() ? null : remaining;
+            });
+        }
+        if (doc.getOwner() != null) {
+            byOwner.merge(doc.getOwner(), List.of(doc), (docs, added) -> sorted(docs, doc));
+        }
+        all = sorted(byId.values(), null);
+        return doc;
+    }
+
+    // index of the first document with an id greater than afterId (the lists are sorted by id)
+    private static int firstAfter(List<Document> docs, long afterId) {
+        int low = 0;
+        int high = docs.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (docs.get(mid).getId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<Document> sorted(Iterable<Document> docs, Document added) {
+        List<Document> list = new ArrayList<>();
+        docs.forEach(list::add);
+        if (added != null) {
+            list.add(added);
+        }
+        list.sort(BY_ID);
+        return List.copyOf(list);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RefreshToken;
+import com.example.demo.service.ExpiryWheel;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** In-memory refresh token store (default when the "jdbc" profile is not active)
+ - refreshTokens: token → RefreshToken
+ - tokenFamilies: family ID → tokens of that family   (rotation chain of one login)
+ - userFamilies:  username  → families of that user   (one per device / login)
+ - expiryWheel:   tokens bucketed by expiry second, so cleanup only visits expired tokens
+
+ No locks: rotation is a compare-and-set on the old token's state (see RefreshToken.markUsed),
+ so only refreshes of the SAME token contend, different users rotate in parallel.
+
+ Winner vs. family revocation (the loser revokes the family while the winner is still storing its new token):
+   winner: add new token to family → check family.revoked → revoke new token if set
+   loser:  family.revoked = true  → revoke every member
+   Whichever runs second sees the other's write, so the new token can't slip through.
+ */
+@Repository
+@Profile("!jdbc")
+public class InMemoryRefreshTokenRepository implements RefreshTokenRepository {
+
+    private static final class TokenFamily {
+        final Set<String> members = ConcurrentHashMap.newKeySet();
+        volatile boolean revoked;
+    }
+
+    private final Map<String, RefreshToken> refreshTokens = new ConcurrentHashMap<>();
+    private final Map<String, TokenFamily> tokenFamilies = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> userFamilies = new ConcurrentHashMap<>();
+    private final ExpiryWheel<String> expiryWheel = new ExpiryWheel<>();
+
+    @Override
+    public void save(RefreshToken refreshToken) {
+        String familyId = refreshToken.getTokenFamily();
+        // compute() is atomic per key, so a concurrent unindex() cannot drop a family we are adding to
+        TokenFamily family = tokenFamilies.compute(familyId, (f, existing) -> {
+            TokenFamily target = existing != null ? existing : new TokenFamily();
+            target.members.add(refreshToken.getToken());
+            return target;
+        });
+        userFamilies.compute(refreshToken.getUsername(), (u, families) -> {
+            Set<String> set = families != null ? families : ConcurrentHashMap.newKeySet();
+            set.add(familyId);
+            return set;
+        });
+        refreshTokens.put(refreshToken.getToken(), refreshToken);
+        expiryWheel.schedule(refreshToken.getToken(), refreshToken.getExpiresAt());
+        if (family.revoked) {
+            refreshToken.revoke(); // family was killed while we were storing this token
+        }
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        return Optional.ofNullable(refreshTokens.get(token));
+    }
+
+    @Override
+    public boolean rotate(String usedToken, RefreshToken replacement, Instant now) {
+        RefreshToken oldToken = refreshTokens.get(usedToken);
+        if (oldToken == null || !oldToken.getExpiresAt().isAfter(now) || !oldToken.markUsed()) {
+            return false;
+        }
+        save(replacement);
+        return true;
+    }
+
+    @Override
+    public void revokeFamily(String tokenFamily) {
+        TokenFamily family = tokenFamilies.get(tokenFamily);
+        if (family == null) {
+            return;
+        }
+        family.revoked = true;
+        for (String member : family.members) {
+            RefreshToken token = refreshTokens.get(member);
+            if (token != null) {
+                token.revoke();
+            }
+        }
+    }
+
+    @Override
+    public void revokeAllForUser(String username) {
+        Set<String> families = userFamilies.get(username);
+        if (families == null) {
+            return;
+        }
+        for (String family : families) {
+            revokeFamily(family);
+        }
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return expiryWheel.advance(now, token -> {
+            RefreshToken expired = refreshTokens.get(token);
+            if (expired != null && !expired.getExpiresAt().isAfter(now) && refreshTokens.remove(token, expired)) {
+                unindex(expired);
+            }
+        });
+    }
+
+    @Override
+    public long count() {
+        return refreshTokens.size();
+    }
+
+    private void unindex(RefreshToken refreshToken) {
+        String familyId = refreshToken.getTokenFamily();
+        TokenFamily remaining = tokenFamilies.computeIfPresent(familyId, (f, family) -> {
+            family.members.remove(refreshToken.getToken());
+            return family.members.isEmpty() ? null : family;
+        });
+        if (remaining == null) {
+            userFamilies.computeIfPresent(refreshToken.getUsername(), (u, families) -> {
+                if (tokenFamilies.containsKey(familyId)) {
+                    return families; // a concurrent rotation just added a token to this family
+                }
+                families.remove(familyId);
+                return families.isEmpty() ? null : families;
+            });
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Optional;
+
+/** Documents in the "documents" table (see schema.sql) - survives restarts, shared by all nodes
+
+ Every listing is answered from an index, ordered by id:
+   all owners:  primary key (id)
+   one owner:   ix_documents_owner (owner, id)
+ Keyset page:  where [owner = ? and] id > ? order by id fetch first ? rows only   → seeks straight to the cursor
+ Offset page:  ... order by id offset ? rows fetch next ? rows only               → walks over the skipped rows
+
+ save() = update by id; a document without id, or with an id that is not stored, is inserted and takes
+ its id from the identity column (never the client's: H2 does not move the sequence past explicit ids)
+ */
+@Repository
+@Profile("jdbc")
+public class JdbcDocumentRepository implements DocumentRepository {
+
+    private static final String COLUMNS = "select id, title, content, owner from documents";
+
+    private static final RowMapper<Document> ROW_MAPPER = (rs, rowNum) -> new Document(
+            rs.getLong("id"),
+            rs.getString("title"),
+            rs.getString("content"),
+            rs.getString("owner"));
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcDocumentRepository(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Optional<Document> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return jdbc.query(COLUMNS + " where id = ?", ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public List<Document> findAll() {
+        return jdbc.query(COLUMNS + " order by id", ROW_MAPPER);
+    }
+
+    @Override
+    public List<Document> findByOwner(String owner) {
+        if (owner == null) {
+            return List.of();
+        }
+        return jdbc.query(COLUMNS + " where owner = ? order by id", ROW_MAPPER, owner);
+    }
+
+    @Override
+    public List<Document> findAfter(String owner, Long afterId, int limit) {
+        long after = afterId == null ? Long.MIN_VALUE : afterId;
+        if (owner == null) {
+            return jdbc.query(COLUMNS + " where id > ? order by id fetch first ? rows only", ROW_MAPPER, after, limit);
+        }
+        return jdbc.query(COLUMNS + " where owner = ? and id > ? order by id fetch first ? rows only",
+                ROW_MAPPER, owner, after, limit);
+    }
+
+    @Override
+    public List<Document> findPage(String owner, long offset, int limit) {
+        if (owner == null) {
+            return jdbc.query(COLUMNS + " order by id offset ? rows fetch next ? rows only", ROW_MAPPER, offset, limit);
+        }
+        return jdbc.query(COLUMNS + " where owner = ? order by id offset ? rows fetch next ? rows only",
+                ROW_MAPPER, owner, offset, limit);
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbc.queryForObject("select count(*) from documents", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public Document save(Document doc) {
+        if (doc.getId() != null && update(doc) == 1) {
+            return doc;
+        }
+        // new document: the id always comes from the identity column. An id chosen by the client
+        // would not advance the identity sequence, and a later generated id would collide with it
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "insert into documents(title, content, owner) values (?, ?, ?)", new String[]{"id"});
+            ps.setString(1, doc.getTitle());
+            ps.setString(2, doc.getContent());
+            ps.setString(3, doc.getOwner());
+            return ps;
+        }, keys);
+        doc.setId(keys.getKeyAs(Long.class));
+        return doc;
+    }
+
+    private int update(Document doc) {
+        return jdbc.update("update documents set title = ?, content = ?, owner = ? where id = ?",
+                doc.getTitle(), doc.getContent(), doc.getOwner(), doc.getId());
+    }
+}
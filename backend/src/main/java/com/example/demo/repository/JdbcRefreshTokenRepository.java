@@ -0,0 +1,225 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RefreshToken;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/** Refresh tokens in the "refresh_tokens" table (see schema.sql) - survives restarts, shared by all nodes
+
+ Rotation = conditional update + insert in one transaction:
+   update refresh_tokens set used = true where token = ? and used = false and expires_at > ?
+   → 1 row:  we won, insert the replacement token
+   → 0 rows: already used (or expired / unknown) - no read-modify-write race possible
+
+ Group commit: rotations are queued and a single writer thread executes whatever is queued
+ as one JDBC batch in one transaction, so a burst of refreshes costs a few commits instead of one each.
+ Two rotations of the same token in one batch still work: the statements run in order,
+ the second update simply matches 0 rows.
+ A caller waits rotateTimeout for the writer to get to its rotation (writer stalled or dead → QueryTimeoutException, a 503):
+   still queued  → withdrawn, nothing was written, so the token stays usable for a retry
+   already taken → keep waiting for the commit: answering 503 while the rotation commits anyway would make the
+                   client's retry look like token reuse and revoke the family. The batch transaction has the same
+                   timeout on its statements, so this wait is bounded as well.
+ */
+@Repository
+@Profile("jdbc")
+public class JdbcRefreshTokenRepository implements RefreshTokenRepository {
+
+    private static final String INSERT =
+            "insert into refresh_tokens(token, username, token_family, expires_at, used) values (?, ?, ?, ?, ?)";
+    private static final String MARK_USED =
+            "update refresh_tokens set used = true where token = ? and used = false and expires_at > ?";
+
+    private static final RowMapper<RefreshToken> ROW_MAPPER = (rs, rowNum) -> new RefreshToken(
+            rs.getString("token"),
+            rs.getString("username"),
+            rs.getTimestamp("expires_at").toInstant(),
+            rs.getString("token_family"),
+            rs.getBoolean("used"));
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final int maxBatchSize;
+    private final Duration rotateTimeout;
+
+    private final BlockingQueue<PendingRotation> pending = new LinkedBlockingQueue<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "refresh-token-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private record PendingRotation(String usedToken, RefreshToken replacement, Instant now,
+                                   CompletableFuture<Boolean> result) {}
+
+    public JdbcRefreshTokenRepository(DataSource dataSource,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.refresh-token.jdbc.max-batch-size:64}") int maxBatchSize,
+                                      @Value("${app.refresh-token.jdbc.rotate-timeout:5s}") Duration rotateTimeout) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setTimeout((int) Math.max(1, (rotateTimeout.toMillis() + 999) / 1000));
+        this.maxBatchSize = maxBatchSize;
+        this.rotateTimeout = rotateTimeout;
+        writer.execute(this::writeLoop);
+    }
+
+    @Override
+    public void save(RefreshToken refreshToken) {
+        jdbc.update(INSERT, insertArgs(refreshToken));
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        List<RefreshToken> found = jdbc.query(
+                "select token, username, token_family, expires_at, used from refresh_tokens where token = ?",
+                ROW_MAPPER, token);
+        return found.stream().findFirst();
+    }
+
+    @Override
+    public boolean rotate(String usedToken, RefreshToken replacement, Instant now) {
+        if (writer.isShutdown()) {
+            throw new IllegalStateException("Refresh token store is shutting down");
+        }
+        PendingRotation rotation = new PendingRotation(usedToken, replacement, now, new CompletableFuture<>());
+        pending.add(rotation);
+        try {
+            return rotation.result().get(rotateTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (pending.remove(rotation)) {
+                throw new QueryTimeoutException("Refresh token rotation not written within " + rotateTimeout);
+            }
+            // already taken by the writer - it may commit, so only its outcome can answer this caller
+            return awaitTaken(rotation);
+        } catch (ExecutionException e) {
+            throw failure(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.remove(rotation);
+            throw new IllegalStateException("Interrupted while waiting for refresh token rotation", e);
+        }
+    }
+
+    private static boolean awaitTaken(PendingRotation rotation) {
+        try {
+            return rotation.result().get();
+        } catch (ExecutionException e) {
+            throw failure(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for refresh token rotation", e);
+        }
+    }
+
+    private static RuntimeException failure(ExecutionException e) {
+        return e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+    }
+
+    @Override
+    public void revokeFamily(String tokenFamily) {
+        jdbc.update("update refresh_tokens set used = true where token_family = ? and used = false", tokenFamily);
+    }
+
+    @Override
+    public void revokeAllForUser(String username) {
+        jdbc.update("update refresh_tokens set used = true where username = ? and used = false", username);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return jdbc.update("delete from refresh_tokens where expires_at <= ?", Timestamp.from(now));
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbc.queryForObject("select count(*) from refresh_tokens", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private void writeLoop() {
+        List<PendingRotation> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pending.drainTo(batch, maxBatchSize - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+        PendingRotation left;
+        while ((left = pending.poll()) != null) {
+            left.result().completeExceptionally(new IllegalStateException("Refresh token store is shutting down"));
+        }
+    }
+
+    private void writeBatch(List<PendingRotation> batch) {
+        boolean[] won;
+        try {
+            won = tx.execute(status -> {
+                List<Object[]> markUsed = new ArrayList<>(batch.size());
+                for (PendingRotation rotation : batch) {
+                    markUsed.add(new Object[]{rotation.usedToken(), Timestamp.from(rotation.now())});
+                }
+                int[] updated = jdbc.batchUpdate(MARK_USED, markUsed);
+
+                boolean[] result = new boolean[batch.size()];
+                List<Object[]> inserts = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    result[i] = updated[i] == 1;
+                    if (result[i]) {
+                        inserts.add(insertArgs(batch.get(i).replacement()));
+                    }
+                }
+                if (!inserts.isEmpty()) {
+                    jdbc.batchUpdate(INSERT, inserts);
+                }
+                return result;
+            });
+        } catch (RuntimeException | Error e) {
+            // every taken rotation must be completed, its caller may be waiting without a timeout
+            batch.forEach(rotation -> rotation.result().completeExceptionally(e));
+            return;
+        }
+        // completed only after commit, so a winner never sees its new token missing
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(won[i]);
+        }
+    }
+
+    private static Object[] insertArgs(RefreshToken token) {
+        return new Object[]{token.getToken(), token.getUsername(), token.getTokenFamily(),
+                Timestamp.from(token.getExpiresAt()), token.isUsed()};
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RefreshToken;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/** Storage for refresh tokens
+ - InMemoryRefreshTokenRepository: default, tokens are lost on restart (single node only)
+ - JdbcRefreshTokenRepository: "jdbc" profile, tokens survive restarts and are shared by all nodes
+ */
+public interface RefreshTokenRepository {
+
+    void save(RefreshToken refreshToken);
+
+    Optional<RefreshToken> findByToken(String token);
+
+    /**
+     * Rotation as one atomic step: mark {@code usedToken} as used AND store {@code replacement},
+     * but only if {@code usedToken} is still unused and not expired at {@code now}
+     * @return true if this caller won the rotation, false if the token was already used (or expired/unknown)
+     */
+    boolean rotate(String usedToken, RefreshToken replacement, Instant now);
+
+    /** Mark every token of the family as used */
+    void revokeFamily(String tokenFamily);
+
+    /** Mark every token of every family of the user as used (log out all devices) */
+    void revokeAllForUser(String username);
+
+    /** Remove tokens that expired before {@code now}, returns how many were removed */
+    int deleteExpired(Instant now);
+
+    long count();
+}
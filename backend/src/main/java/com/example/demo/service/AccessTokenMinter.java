@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import com.example.demo.config.JwtKeyRing;
+import com.example.demo.config.JwtSigningKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Builds and signs access tokens for /api/token and /api/token/refresh
+ Everything that is the same for every token is built once at startup:
+   header:  {"alg":"RS256","kid":"demo-key-2025"}   (alg + kid of the key ring's active key, rebuilt on rotation)
+   claims:  iss, aud, token_type = "access"
+ Per token only: sub, roles, iat, exp, jti
+
+ JTI: random UUID-shaped id from ThreadLocalRandom instead of UUID.randomUUID()
+ - UUID.randomUUID() shares one SecureRandom → threads minting tokens at the same time queue on it
+ - The jti only has to be unique (blacklist key), not secret: the token is signed, so guessing one gains nothing
+ */
+@Service
+public class AccessTokenMinter {
+
+    private final JwtEncoder encoder;
+    private final JwtKeyRing keyRing;
+    private final Map<String, Object> staticClaims;
+    private final long ttlSeconds;
+    private volatile ActiveHeader activeHeader;
+
+    // header of the ring's active key, rebuilt only when a rotation switches the active key
+    private record ActiveHeader(JwtSigningKey key, JwsHeader header) {}
+
+    public AccessTokenMinter(JwtEncoder encoder,
+                             JwtKeyRing keyRing,
+                             @Value("${app.jwt.issuer}") String issuer,
+                             @Value("${app.jwt.expires-min}") long ttlMinutes,
+                             @Value("${app.jwt.audience}") String audience) {
+        this.encoder = encoder;
+        this.keyRing = keyRing;
+        this.staticClaims = Map.of(
+                JwtClaimNames.ISS, issuer,
+                JwtClaimNames.AUD, List.of(audience),
+                "token_type", "access");
+        this.ttlSeconds = ttlMinutes * 60;
+    }
+
+    /** Signed access token for {@code subject}, valid from {@code now} for app.jwt.expires-min */
+    public String mint(String subject, List<String> roles, Instant now) {
+        var claims = JwtClaimsSet.builder()
+                .claims(c -> c.putAll(staticClaims))
+                .subject(subject)
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(ttlSeconds))
+                .claim("roles", roles)
+                .id(newJti())
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(header(), claims)).getTokenValue();
+    }
+
+    private JwsHeader header() {
+        JwtSigningKey active = keyRing.active();
+        ActiveHeader current = activeHeader;
+        if (current == null || current.key() != active) {
+            current = new ActiveHeader(active, JwsHeader.with(active.algorithm()).keyId(active.keyId()).build());
+            activeHeader = current;
+        }
+        return current.header();
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    // Same shape as a version-4 UUID (random, variant 2), so existing jti consumers see no difference
+    static String newJti() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & ~(0xCL << 60)) | (0x8L << 60);
+        return new UUID(msb, lsb).toString();
+    }
+}
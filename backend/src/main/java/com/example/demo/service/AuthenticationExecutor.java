@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Runs password checks (BCrypt, tens of ms of CPU each) on their own small thread pool
+ Without it every login burns a Tomcat thread → a login storm starves all other endpoints.
+
+   POST /api/token → authenticate() → [ queue (bounded) ] → auth-N thread → AuthenticationManager
+                     ↓ returns at once                                ↓
+                     Tomcat thread is free again          CompletableFuture completes → response
+
+ Load shedding (→ AuthenticationOverloadedException, answered with 503 + Retry-After):
+ - queue full                                  → rejected immediately
+ - waited longer than max-queue-wait in queue  → rejected when dequeued (the client has likely given up)
+ */
+@Service
+public class AuthenticationExecutor implements MeterBinder {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    public AuthenticationExecutor(AuthenticationManager authenticationManager,
+                                  @Value("${app.auth.executor.threads:0}") int threads,
+                                  @Value("${app.auth.executor.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.auth.executor.max-queue-wait:2s}") Duration maxQueueWait) {
+        this.authenticationManager = authenticationManager;
+        // default: half the cores, the other half stays with the rest of the API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "auth-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+    }
+
+    public CompletableFuture<Authentication> authenticate(Authentication request) {
+        CompletableFuture<Authentication> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                if (System.nanoTime() - enqueuedAt > maxQueueWaitNanos) {
+                    rejected.increment();
+                    result.completeExceptionally(new AuthenticationOverloadedException("Login waited too long in queue"));
+                    return;
+                }
+                try {
+                    result.complete(authenticationManager.authenticate(request));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new AuthenticationOverloadedException("Login queue is full"));
+        }
+        return result;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.executor.queued", executor, e -> e.getQueue().size())
+                .description("Logins waiting for a password check")
+                .register(registry);
+        Gauge.builder("auth.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password checks in progress")
+                .register(registry);
+        FunctionCounter.builder("auth.executor.rejected", rejected, LongAdder::sum)
+                .description("Logins shed because the queue was full or the wait too long")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
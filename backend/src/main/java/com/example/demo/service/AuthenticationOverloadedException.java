@@ -0,0 +1,9 @@
+package com.example.demo.service;
+
+/** Login rejected without checking the password - the authentication executor is saturated */
+public class AuthenticationOverloadedException extends RuntimeException {
+
+    public AuthenticationOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -4,16 +4,44 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalTime;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 
+/** Helpers for @PreAuthorize expressions, referenced as @customSecurity
+ Time-based checks read a cached tick instead of LocalTime.now() / LocalDate.now() on every call:
+   tick = hour + day of week, valid until the next full hour
+   call → clock.millis() < validUntil ? cached tick : recompute (once per hour)
+ */
 @Service("customSecurity")
 public class CustomSecurityService {
+
+    private record HourTick(int hour, DayOfWeek dayOfWeek, long validUntilMillis) {}
+
+    private final Clock clock;
+    private volatile HourTick tick;
+
+    public CustomSecurityService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    CustomSecurityService(Clock clock) {
+        this.clock = clock;
+    }
+
     // Custom method to check business logic
     public boolean isWorkingHours() {
-        int hour = LocalTime.now().getHour();
+        int hour = tick().hour();
         return hour >= 9 && hour <= 17; // 9 AM to 5 PM
     }
 
+    // Monday (1) to Friday (5)
+    public boolean isWeekday() {
+        return tick().dayOfWeek().getValue() <= 5;
+    }
+
     // Check if user has premium account (mock logic)
     public boolean isPremium(String userName) {
         return userName.startsWith("premium");
@@ -26,4 +54,16 @@ public class CustomSecurityService {
         return auth.getName().equals("admin") || documentId < 100;
     }
 
+    private HourTick tick() {
+        long now = clock.millis();
+        HourTick current = tick;
+        if (current == null || now >= current.validUntilMillis()) {
+            // racing threads compute the same value, last write wins
+            ZonedDateTime time = Instant.ofEpochMilli(now).atZone(clock.getZone());
+            long nextHour = time.truncatedTo(ChronoUnit.HOURS).plusHours(1).toInstant().toEpochMilli();
+            current = new HourTick(time.getHour(), time.getDayOfWeek(), nextHour);
+            tick = current;
+        }
+        return current;
+    }
 }
@@ -1,38 +1,56 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Document;
+import com.example.demo.repository.DocumentRepository;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+/** Documents, stored by the DocumentRepository of the active profile
+ - InMemoryDocumentRepository: default, concurrent maps indexed by id and owner
+ - JdbcDocumentRepository:     "jdbc" profile, "documents" table indexed by id and (owner, id)
+ An owner of null in the page methods means "all owners".
+ */
 @Service
 public class DocumentService {
 
-    // Fake database using a Map
-    private Map<Long, Document> documents = new HashMap<>();
-    public DocumentService() {
-        // Initialize with sample data
-        documents.put(1L, new Document(1L, "Admin Report", "Secret admin content", "admin"));
-        documents.put(2L, new Document(2L, "User Guide", "How to use the app", "user"));
-        documents.put(3L, new Document(3L, "Manager Notes", "Team performance", "manager"));
-        documents.put(4L, new Document(4L, "Public Doc", "Everyone can see", "user"));
+    private final DocumentRepository documentRepository;
+
+    public DocumentService(DocumentRepository documentRepository) {
+        this.documentRepository = documentRepository;
     }
 
     public Document findById(Long id) {
-        return documents.get(id);
+        return documentRepository.findById(id).orElse(null);
     }
 
+    /** Every document, ordered by id - small stores only, use findAfter / findPage otherwise */
     public List<Document> findAll() {
-        return new ArrayList<>(documents.values());
+        return documentRepository.findAll();
     }
 
-    public Document save(Document doc) {
-        documents.put(doc.getId(), doc);
-        return doc;
+    /** Documents of one owner, ordered by id (empty if none) */
+    public List<Document> findByOwner(String owner) {
+        return documentRepository.findByOwner(owner);
     }
 
+    /** Keyset page: the next {@code size} documents after the cursor (the last id of the previous page, null = first page) */
+    public List<Document> findAfter(String owner, Long cursor, int size) {
+        return documentRepository.findAfter(owner, cursor, size);
+    }
+
+    /** Numbered page, starting at 0 */
+    public List<Document> findPage(String owner, int page, int size) {
+        return documentRepository.findPage(owner, (long) page * size, size);
+    }
 
+    public Document save(Document doc) {
+        return documentRepository.save(doc);
+    }
+
+    /** Store a new document - an id set by the client is dropped, so this never replaces an existing one */
+    public Document create(Document doc) {
+        doc.setId(null);
+        return documentRepository.save(doc);
+    }
 }
@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/** Expiry buckets - one bucket per second, holding the keys that expire in that second.
+
+ schedule("jti-1", 10:00:05) → bucket[10:00:05] = [jti-1]
+ schedule("jti-2", 10:00:05) → bucket[10:00:05] = [jti-1, jti-2]
+ advance(10:00:06)           → bucket[10:00:05] removed, jti-1 + jti-2 handed to the callback
+
+ - advance() only touches buckets that are already in the past, so each tick costs O(expired keys)
+   instead of a scan over every live key
+ - A key may be handed to the callback more than once (e.g. scheduled twice),
+   so the callback must be idempotent
+ */
+public class ExpiryWheel<K> {
+
+    private final ConcurrentSkipListMap<Long, Queue<K>> buckets = new ConcurrentSkipListMap<>();
+
+    public void schedule(K key, Instant expiresAt) {
+        long second = expiresAt.getEpochSecond();
+        while (true) {
+            Queue<K> bucket = buckets.computeIfAbsent(second, s -> new ConcurrentLinkedQueue<>());
+            bucket.add(key);
+            // advance() may have detached this bucket between computeIfAbsent and add - if so, try again
+            if (buckets.get(second) == bucket) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hand every key that expired strictly before {@code now} (second precision) to {@code onExpired}
+     * @return number of keys handed out
+     */
+    public int advance(Instant now, Consumer<K> onExpired) {
+        long nowSecond = now.getEpochSecond();
+        int expired = 0;
+        Map.Entry<Long, Queue<K>> first;
+        while ((first = buckets.firstEntry()) != null && first.getKey() < nowSecond) {
+            if (!buckets.remove(first.getKey(), first.getValue())) {
+                continue;
+            }
+            for (K key : first.getValue()) {
+                onExpired.accept(key);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /** Number of non-empty seconds still pending (for monitoring) */
+    public int bucketCount() {
+        return buckets.size();
+    }
+}
@@ -1,13 +1,13 @@
 package com.example.demo.service;
 
 import com.example.demo.model.RefreshToken;
+import com.example.demo.repository.RefreshTokenRepository;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /** Complete Flow Example
 
@@ -29,40 +29,37 @@ public class RefreshTokenService {
     //This service manages refresh tokens - it creates them, validates them,
     //  and makes sure they're not being misused.
 
-    // In-memory usage - In production should use database or redis
-    //  - Key: The token string (UUID like "a4b5c6d7-e8f9...")
-    //  - Value: RefreshToken object with all details
-    //  - ConcurrentHashMap: Thread-safe (multiple users can refresh simultaneously)
-    private final Map<String, RefreshToken> refreshTokens = new ConcurrentHashMap<>();
+    // Storage is pluggable (see RefreshTokenRepository):
+    //  - default: in-memory map with family/user indexes (lost on restart)
+    //  - "jdbc" profile: refresh_tokens table, survives restarts and works across nodes
+    private final RefreshTokenRepository repository;
+
+    private static final long REFRESH_TOKEN_TTL_SECONDS = 7 * 24 * 60 * 60; // 7 days
+
+    public RefreshTokenService(RefreshTokenRepository repository) {
+        this.repository = repository;
+    }
 
     /** Creates a new refresh token
      - Generates random UUID (like "550e8400-e29b-41d4...")
      - Sets expiry to 7 days from now
-     - Stores in the map
+     - Stores it in the repository
      - Returns the token object
      */
     public RefreshToken createRefreshToken(String username) {
-        // cleanUp expired tokens periodically
-        cleanupExpiredTokens();
-
         String token = UUID.randomUUID().toString();
-        Instant expiredAt = Instant.now().plusSeconds(7 * 24 * 60 * 60); // 7 days
-        RefreshToken refreshToken = new RefreshToken(token, username, expiredAt);
-
-        refreshTokens.put(token, refreshToken);
+        RefreshToken refreshToken = new RefreshToken(token, username, expiresAt());
+        repository.save(refreshToken);
         return refreshToken;
     }
 
     public Optional<RefreshToken> findByToken(String token) {
-        return Optional.ofNullable(refreshTokens.get(token));
+        return repository.findByToken(token);
     }
 
     public RefreshToken verifyAndRotateToken(String token) {
-        RefreshToken oldToken = refreshTokens.get(token);
-
-        if (oldToken == null) {
-            throw new RuntimeException("Refresh token not found");
-        }
+        RefreshToken oldToken = repository.findByToken(token)
+                .orElseThrow(() -> new RuntimeException("Refresh token not found"));
 
         if (oldToken.isUsed()) {
             // TOKEN REUSE DETECTED! Possible theft!
@@ -70,14 +67,21 @@ public class RefreshTokenService {
             throw new RuntimeException("Token already used - possible theft detected!");
         }
 
-        if (oldToken.getExpiresAt().isBefore(Instant.now())) {
+        Instant now = Instant.now();
+        if (!oldToken.getExpiresAt().isAfter(now)) {
             throw new RuntimeException("Refresh token expired");
         }
 
-        oldToken.setUsed(true);
-        //Create New refresh tokem
-        RefreshToken refreshToken = createRefreshToken(oldToken.getUsername());
-        refreshToken.setTokenFamily(oldToken.getTokenFamily());
+        //Create New refresh token in the same family - marking the old one used is a compare-and-set
+        // in the repository: of N concurrent refreshes with this token exactly one wins,
+        // every other one lands below and kills the family (no lock, so refreshes scale with cores)
+        RefreshToken refreshToken = new RefreshToken(UUID.randomUUID().toString(), oldToken.getUsername(),
+                expiresAt(), oldToken.getTokenFamily());
+        if (!repository.rotate(token, refreshToken, now)) {
+            // Someone else used this token between our read and the rotation
+            invalidateTokenFamily(oldToken.getTokenFamily());
+            throw new RuntimeException("Token already used - possible theft detected!");
+        }
         return refreshToken;
     }
 
@@ -94,14 +98,30 @@ public class RefreshTokenService {
      Result: Token3 also dies, hacker locked out
      */
     public void invalidateTokenFamily(String tokenFamily) {
-        refreshTokens.values().stream().filter(token -> token.getTokenFamily().equals(tokenFamily))
-                .forEach(t -> t.setUsed(true));
+        repository.revokeFamily(tokenFamily);
+    }
+
+    /** Log out all devices of a user - revokes every family (login) the user has */
+    public void invalidateAllUserTokens(String username) {
+        repository.revokeAllForUser(username);
+    }
+
+    /**
+     * Drop expired tokens
+     * Runs every minute in the background, so login and refresh never pay for cleanup
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void cleanupExpiredTokens() {
+        repository.deleteExpired(Instant.now());
+    }
+
+    /** Number of stored refresh tokens (for monitoring) */
+    public long getTokenCount() {
+        return repository.count();
     }
 
-    private void cleanupExpiredTokens() {
-        refreshTokens.entrySet().removeIf(entry ->
-                entry.getValue().getExpiresAt().isBefore(Instant.now())
-        );
+    private static Instant expiresAt() {
+        return Instant.now().plusSeconds(REFRESH_TOKEN_TTL_SECONDS);
     }
 
 }
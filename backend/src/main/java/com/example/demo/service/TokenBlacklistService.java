@@ -1,17 +1,30 @@
 package com.example.demo.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 // Feature: Logout with blacklisting
+//  - blacklistedTokens: exact set of revoked JTIs (JTI → token expiry)
+//  - expiryWheel: the same JTIs bucketed by expiry second, so cleanup only visits expired entries
 @Service
-public class TokenBlacklistService {
+public class TokenBlacklistService implements MeterBinder {
 
-    Map<String, Instant> blacklistedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Instant> blacklistedTokens = new ConcurrentHashMap<>();
+
+    private final ExpiryWheel<String> expiryWheel = new ExpiryWheel<>();
+
+    private volatile Timer sweepTimer;
+    private volatile Counter expiredCounter;
 
     /**
      * Add a token to the blacklist
@@ -20,12 +33,15 @@ public class TokenBlacklistService {
      */
     public void blackListToken(String jti, Instant expiresAt) {
         if (jti != null && expiresAt != null) {
-            blacklistedTokens.put(jti, expiresAt);
+            blacklistedTokens.merge(jti, expiresAt, (old, now) -> now.isAfter(old) ? now : old);
+            expiryWheel.schedule(jti, expiresAt);
         }
     }
 
     /**
      * Check if a token is blacklisted
+     * Expired entries are dropped by the cleanup tick, not here - an entry can outlive its
+     * token by at most one tick, which is harmless since the expired token is rejected anyway
      * @param jti The JWT ID to check
      * @return true if blacklisted, false otherwise
      */
@@ -33,29 +49,36 @@ public class TokenBlacklistService {
         if (jti == null) {
             return false;
         }
-        Instant expiresAt = blacklistedTokens.get(jti);
-        if (expiresAt != null) {
-            if (expiresAt.isBefore(Instant.now())) {
-                blacklistedTokens.remove(jti);
-                return false; /// token is expired
-            } else {
-                return true; // token is blacklisted
-            }
-        }
-        return false;
+        return blacklistedTokens.containsKey(jti);
     }
 
 
     /**
      * Clean up expired tokens from blacklist
-     * Runs every hour
+     * Runs every second, and only visits the JTIs that expired since the previous tick
      */
-    @Scheduled(fixedDelay = 3600000) // 1 hour
+    @Scheduled(fixedDelay = 1000)
     public void cleanupExpiredTokens() {
+        long start = System.nanoTime();
         Instant now = Instant.now();
-        blacklistedTokens.entrySet().removeIf(entry ->
-                entry.getValue().isBefore(now)
-        );
+        int expired = expiryWheel.advance(now, jti -> {
+            Instant expiresAt = blacklistedTokens.get(jti);
+            // only remove if it was not re-blacklisted with a later expiry
+            if (expiresAt != null && !expiresAt.isAfter(now)) {
+                blacklistedTokens.remove(jti, expiresAt);
+            }
+        });
+
+        Timer timer = sweepTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            expiredCounter.increment(expired);
+        }
+    }
+
+    /** Expiry stored for a blacklisted JTI, null if it is not (or no longer) blacklisted */
+    Instant blacklistedUntil(String jti) {
+        return blacklistedTokens.get(jti);
     }
 
     /**
@@ -65,4 +88,17 @@ public class TokenBlacklistService {
         return blacklistedTokens.size();
     }
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("token.blacklist.size", blacklistedTokens, Map::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(registry);
+        expiredCounter = Counter.builder("token.blacklist.expired")
+                .description("Blacklist entries dropped because the token expired")
+                .register(registry);
+        sweepTimer = Timer.builder("token.blacklist.sweep")
+                .description("Time spent dropping expired blacklist entries per tick")
+                .register(registry);
+    }
+
 }
@@ -6,4 +6,10 @@ insert into users(username, password, enabled) values
 insert into authorities(username, authority) values
 ('user', 'ROLE_USER'),
 ('admin','ROLE_ADMIN'),
-('manager', 'ROLE_MANAGER');
\ No newline at end of file
+('manager', 'ROLE_MANAGER');
+-- ids 1-4 come from the identity column, so documents created later continue at 5
+insert into documents(title, content, owner) values
+('Admin Report',  'Secret admin content', 'admin'),
+('User Guide',    'How to use the app',   'user'),
+('Manager Notes', 'Team performance',     'manager'),
+('Public Doc',    'Everyone can see',     'user');
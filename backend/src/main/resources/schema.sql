@@ -9,4 +9,31 @@ create table authorities (
   authority varchar(50) not null,
   constraint fk_auth_user foreign key(username) references users(username)
 );
-create unique index ix_auth_username on authorities (username, authority);
\ No newline at end of file
+create unique index ix_auth_username on authorities (username, authority);
+
+create table refresh_tokens (
+  token varchar(64) primary key,
+  username varchar(50) not null,
+  token_family varchar(64) not null,
+  expires_at timestamp not null,
+  used boolean not null default false
+);
+create index ix_refresh_family on refresh_tokens (token_family);
+create index ix_refresh_username on refresh_tokens (username);
+create index ix_refresh_expires on refresh_tokens (expires_at);
+
+create table rate_limit_buckets (
+  id varchar(255) primary key,
+  state varbinary(4096) not null,
+  version bigint not null,
+  expires_at bigint not null
+);
+create index ix_rate_limit_expires on rate_limit_buckets (expires_at);
+
+create table documents (
+  id bigint generated by default as identity primary key,
+  title varchar(255),
+  content varchar(4000),
+  owner varchar(50) not null
+);
+create index ix_documents_owner on documents (owner, id);
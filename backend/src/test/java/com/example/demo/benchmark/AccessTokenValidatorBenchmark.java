@@ -0,0 +1,91 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.AccessTokenValidator;
+import com.example.demo.config.CustomJwtValidator;
+import com.example.demo.service.TokenBlacklistService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Claim validation of a valid access token (the path every authenticated request takes on a decode cache miss)
+ - chain: JwtValidators.createDefault() + CustomJwtValidator + audience check + token_type check
+          in a DelegatingOAuth2TokenValidator (what JwtBeans wired before, the last two rebuilt below)
+ - fused: AccessTokenValidator, same checks (plus iss) in one pass
+ Measured (1 CPU, noisy): chain ~730 ns/op, fused ~90 ns/op. Run with -prof gc to see the allocation difference per call.
+
+ mvn -Pbenchmark test-compile exec:exec -Dbenchmark=AccessTokenValidator
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessTokenValidatorBenchmark {
+
+    private OAuth2TokenValidator<Jwt> chain;
+    private OAuth2TokenValidator<Jwt> fused;
+    private Jwt jwt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TokenBlacklistService blacklist = new TokenBlacklistService();
+        Instant now = Instant.now();
+        for (int i = 0; i < 1000; i++) {
+            blacklist.blackListToken(UUID.randomUUID().toString(), now.plusSeconds(3600));
+        }
+
+        chain = new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefault(), new CustomJwtValidator(blacklist),
+                audienceValidator("demo-api"), tokenTypeValidator());
+        fused = new AccessTokenValidator(blacklist, "demo-app", "demo-api");
+
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .issuer("demo-app")
+                .audience(List.of("demo-api"))
+                .subject("user")
+                .jti(UUID.randomUUID().toString())
+                .claim("token_type", "access")
+                .claim("roles", List.of("ROLE_USER"))
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+    }
+
+    @Benchmark
+    public OAuth2TokenValidatorResult chain() {
+        return chain.validate(jwt);
+    }
+
+    @Benchmark
+    public OAuth2TokenValidatorResult fused() {
+        return fused.validate(jwt);
+    }
+
+    // the standalone audience / token_type validators the chain used
+    private static OAuth2TokenValidator<Jwt> audienceValidator(String expectedAudience) {
+        return token -> {
+            List<String> audiences = token.getAudience();
+            if (audiences != null && audiences.contains(expectedAudience)) {
+                return OAuth2TokenValidatorResult.success();
+            }
+            return OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_audience",
+                    String.format("The required audience '%s' is not present in the token", expectedAudience), null));
+        };
+    }
+
+    private static OAuth2TokenValidator<Jwt> tokenTypeValidator() {
+        return token -> "access".equals(token.getClaimAsString("token_type"))
+                ? OAuth2TokenValidatorResult.success()
+                : OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token_type", "Token type must be 'access'", null));
+    }
+}
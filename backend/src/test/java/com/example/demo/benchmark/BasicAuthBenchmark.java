@@ -0,0 +1,60 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.CachingDaoAuthenticationProvider;
+import com.example.demo.config.VerifiedCredentialCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/** Authentications per second for one HTTP Basic request, with and without the verified-credential cache.
+ Same work as BasicAuthenticationFilter → ProviderManager per request; BCrypt strength 10 like data.sql.
+ - cache=false: every request runs BCrypt (the "before")
+ - cache=true:  the first request hashes, the rest hit the cache (the "after")
+ Run with -t to add threads, e.g. -Dbenchmark="BasicAuth -t 4"
+
+ mvn -Pbenchmark test-compile exec:exec -Dbenchmark=BasicAuth
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasicAuthBenchmark {
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private ProviderManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordEncoder encoder = new BCryptPasswordEncoder(10);
+        var users = new InMemoryUserDetailsManager(
+                User.withUsername("user").password(encoder.encode("password")).roles("USER").build());
+        AuthenticationProvider provider;
+        if (cache) {
+            provider = new CachingDaoAuthenticationProvider(users, encoder, new VerifiedCredentialCache(10_000, Duration.ofSeconds(30)));
+        } else {
+            var dao = new DaoAuthenticationProvider(users);
+            dao.setPasswordEncoder(encoder);
+            provider = dao;
+        }
+        manager = new ProviderManager(provider);
+    }
+
+    @Benchmark
+    public Authentication basicAuthRequest() {
+        return manager.authenticate(new UsernamePasswordAuthenticationToken("user", "password"));
+    }
+}
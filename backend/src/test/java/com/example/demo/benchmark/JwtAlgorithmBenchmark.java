@@ -0,0 +1,90 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.CachedSignerJwtEncoder;
+import com.example.demo.config.JwtAlgorithm;
+import com.example.demo.config.JwtSigningKey;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Sign and verify latency per app.jwt.algorithm, plus the size of the resulting access token.
+ - sign:   CachedSignerJwtEncoder.encode() of a token like AccessTokenMinter mints
+ - verify: the signature check alone (what CachingJwtDecoder pays on a cache miss), JDK Signature
+ The token size in bytes is printed once per algorithm ("token bytes: ...").
+
+ mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtAlgorithm
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public JwtAlgorithm algorithm;
+
+    private CachedSignerJwtEncoder encoder;
+    private JwtEncoderParameters parameters;
+    private JwtSigningKey key;
+    private byte[] signingInput;
+    private byte[] signature;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.keyAlgorithm());
+        switch (algorithm) {
+            case RS256 -> generator.initialize(2048);
+            case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+            case EdDSA -> { }
+        }
+        KeyPair pair = generator.generateKeyPair();
+        key = new JwtSigningKey("demo-key-2025", algorithm, pair.getPrivate(), pair.getPublic());
+        encoder = new CachedSignerJwtEncoder(List.of(key));
+
+        Instant now = Instant.now();
+        parameters = JwtEncoderParameters.from(
+                JwsHeader.with(algorithm).keyId("demo-key-2025").build(),
+                JwtClaimsSet.builder()
+                        .issuer("demo-app")
+                        .audience(List.of("demo-api"))
+                        .claim("token_type", "access")
+                        .subject("user")
+                        .issuedAt(now)
+                        .expiresAt(now.plusSeconds(1800))
+                        .claim("roles", List.of("ROLE_USER"))
+                        .id("2b1c7a52-7f61-4d8e-9d3c-1c0f3e0a9b11")
+                        .build());
+
+        String token = encoder.encode(parameters).getTokenValue();
+        int lastDot = token.lastIndexOf('.');
+        signingInput = token.substring(0, lastDot).getBytes();
+        signature = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+        System.out.println("token bytes: " + token.length() + " (" + algorithm + ")");
+    }
+
+    @Benchmark
+    public Jwt sign() {
+        return encoder.encode(parameters);
+    }
+
+    @Benchmark
+    public boolean verify() throws Exception {
+        Signature verifier = Signature.getInstance(algorithm.jcaSignature());
+        verifier.initVerify(key.publicKey());
+        verifier.update(signingInput);
+        return verifier.verify(signature);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.CachingRoleHierarchy;
+import com.example.demo.controller.DocumentController;
+import com.example.demo.model.Document;
+import com.example.demo.repository.InMemoryDocumentRepository;
+import com.example.demo.service.CustomSecurityService;
+import com.example.demo.service.DocumentService;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authorization.AuthoritiesAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.MethodInvocationResult;
+import org.springframework.security.authorization.method.PostAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.SecuredAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/** Per-call authorization cost of each method-security style on DocumentController, interpreted vs compiled SpEL
+ - secured:        @Secured({"ROLE_ADMIN", "ROLE_MANAGER"})                      (no SpEL)
+ - preParameter:   @PreAuthorize("#owner == authentication.name")
+ - preComplex:     @PreAuthorize("hasRole('USER') and @customSecurity.isWeekday() and authentication.name == #document.owner")
+ - preBean:        @PreAuthorize("@customSecurity.isWorkingHours()")
+ - postAuthorize:  @PostAuthorize("returnObject.owner == authentication.name or hasRole('ADMIN')")
+ Only the authorization manager / interceptor runs - no proxy, no controller body.
+ Expressions with a bean reference (@customSecurity) can't be compiled and stay interpreted in every mode.
+ Measured on 1 noisy CPU (OFF → IMMEDIATE, ns/op; the OFF runs had very wide error bars):
+   secured ~100 → ~100, preParameter ~9000 → ~2500, preComplex ~2000 → ~1900, preBean ~1100 → ~1100,
+   postAuthorize ~10000 → ~9500, postFilter (since replaced by the owner index in DocumentService) ~26000 → ~650
+
+ mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MethodSecurity
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodSecurityBenchmark {
+
+    @Param({"OFF", "IMMEDIATE"})
+    public SpelCompilerMode compilerMode;
+
+    private final SecuredAuthorizationManager secured = new SecuredAuthorizationManager();
+    private final PreAuthorizeAuthorizationManager pre = new PreAuthorizeAuthorizationManager();
+    private final PostAuthorizeAuthorizationManager post = new PostAuthorizeAuthorizationManager();
+
+    private Supplier<Authentication> user;
+    private MethodInvocation managementOnly;
+    private MethodInvocation byOwner;
+    private MethodInvocation createDocument;
+    private MethodInvocation businessHours;
+    private MethodInvocationResult userDocument;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("customSecurity", new CustomSecurityService());
+        context.refresh();
+        var hierarchy = new CachingRoleHierarchy(RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"));
+
+        // same wiring as MethodSecurityConfig, with the compiler mode as the parameter
+        var handler = new DefaultMethodSecurityExpressionHandler();
+        handler.setExpressionParser(new SpelExpressionParser(new SpelParserConfiguration(compilerMode, getClass().getClassLoader())));
+        handler.setRoleHierarchy(hierarchy);
+        handler.setApplicationContext(context);
+        pre.setExpressionHandler(handler);
+        post.setExpressionHandler(handler);
+        var authorities = new AuthoritiesAuthorizationManager();
+        authorities.setRoleHierarchy(hierarchy);
+        secured.setAuthoritiesAuthorizationManager(authorities);
+
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user")
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(3600)).build();
+        Authentication authentication = new JwtAuthenticationToken(jwt, AuthorityUtils.createAuthorityList("ROLE_USER"), "user");
+        user = () -> authentication;
+
+        DocumentService documents = new DocumentService(new InMemoryDocumentRepository());
+        var controller = new DocumentController(documents, hierarchy);
+        managementOnly = invocation(controller, "managementOnly");
+        byOwner = invocation(controller, "getDocuementByOwner", "user");
+        createDocument = invocation(controller, "createDocument", new Document(5L, "Draft", "", "user"));
+        businessHours = invocation(controller, "businessHoursOnly");
+        userDocument = new MethodInvocationResult(invocation(controller, "getDocument", 2L), documents.findById(2L));
+    }
+
+    private static MethodInvocation invocation(Object target, String name, Object... args) throws Exception {
+        for (Method method : DocumentController.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return new SimpleMethodInvocation(target, method, args);
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Benchmark
+    public AuthorizationResult secured() {
+        return secured.authorize(user, managementOnly);
+    }
+
+    @Benchmark
+    public AuthorizationResult preParameter() {
+        return pre.authorize(user, byOwner);
+    }
+
+    @Benchmark
+    public AuthorizationResult preComplex() {
+        return pre.authorize(user, createDocument);
+    }
+
+    @Benchmark
+    public AuthorizationResult preBean() {
+        return pre.authorize(user, businessHours);
+    }
+
+    @Benchmark
+    public AuthorizationResult postAuthorize() {
+        return post.authorize(user, userDocument);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.TokenBlacklistService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Blacklist lookup cost across blacklist sizes.
+ - notRevoked: the common case - a valid token whose JTI was never blacklisted
+ - revoked: a blacklisted JTI
+ Each lookup uses a fresh String, like a JTI parsed out of a JWT, so String.hashCode is not cached.
+
+ mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TokenBlacklist
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBlacklistBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    public int blacklistSize;
+
+    private TokenBlacklistService service;
+    private char[][] notRevoked;
+    private char[][] revoked;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new TokenBlacklistService();
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        revoked = new char[PROBES][];
+        for (int i = 0; i < blacklistSize; i++) {
+            String jti = UUID.randomUUID().toString();
+            service.blackListToken(jti, expiresAt);
+            if (i < PROBES) {
+                revoked[i] = jti.toCharArray();
+            }
+        }
+        notRevoked = new char[PROBES][];
+        for (int i = 0; i < PROBES; i++) {
+            notRevoked[i] = UUID.randomUUID().toString().toCharArray();
+            if (revoked[i] == null) {
+                revoked[i] = revoked[i % blacklistSize];
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return service.isBlackListed(new String(notRevoked[next++ & (PROBES - 1)]));
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return service.isBlackListed(new String(revoked[next++ & (PROBES - 1)]));
+    }
+}
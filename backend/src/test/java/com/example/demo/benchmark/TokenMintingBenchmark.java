@@ -0,0 +1,75 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.JwtAlgorithm;
+import com.example.demo.config.JwtKeyRing;
+import com.example.demo.config.JwtSigningKey;
+import com.example.demo.service.AccessTokenMinter;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Access tokens minted per second (RS256, 2048-bit key like jwt-private.pem)
+ - perCall: what TokenController did before - header, audience list and claim chain rebuilt, UUID.randomUUID() jti
+ - minter:  AccessTokenMinter - precomputed header + static claims, ThreadLocalRandom jti
+ The RSA signature dominates a single thread; the jti difference shows up with threads (SecureRandom is shared):
+ -Dbenchmark="TokenMinting -t 8"
+
+ mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TokenMinting
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenMintingBenchmark {
+
+    private static final List<String> ROLES = List.of("ROLE_USER");
+
+    private JwtEncoder encoder;
+    private AccessTokenMinter minter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("demo-key-2025").generate();
+        encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(key)));
+        minter = new AccessTokenMinter(encoder, JwtKeyRing.of(List.of(
+                new JwtSigningKey("demo-key-2025", JwtAlgorithm.RS256, key.toPrivateKey(), key.toPublicKey()))),
+                "demo-app", 30, "demo-api");
+    }
+
+    @Benchmark
+    public String perCall() {
+        var now = Instant.now();
+        var claims = JwtClaimsSet.builder()
+                .issuer("demo-app")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(1800))
+                .subject("user")
+                .claim("roles", ROLES)
+                .claim("aud", List.of("demo-api"))
+                .claim("jti", UUID.randomUUID().toString())
+                .claim("token_type", "access")
+                .build();
+        var header = JwsHeader.with(SignatureAlgorithm.RS256).keyId("demo-key-2025").build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    @Benchmark
+    public String minter() {
+        return minter.mint("user", ROLES, Instant.now());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.config;
+
+import com.example.demo.service.TokenBlacklistService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenValidatorTest {
+
+    private final TokenBlacklistService blacklist = new TokenBlacklistService();
+    private final AccessTokenValidator fused = new AccessTokenValidator(blacklist, "demo-app", "demo-api");
+
+    static Jwt token(Consumer<Jwt.Builder> customizer) {
+        Instant now = Instant.now();
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .issuer("demo-app")
+                .audience(List.of("demo-api"))
+                .subject("user")
+                .jti("jti-1")
+                .claim("token_type", "access")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(1800));
+        customizer.accept(builder);
+        return builder.build();
+    }
+
+    @Test
+    void validTokenPassesWithoutAllocatingAResult() {
+        Jwt jwt = token(b -> { });
+
+        assertSame(OAuth2TokenValidatorResult.success(), fused.validate(jwt));
+    }
+
+    @Test
+    void failuresKeepTheErrorCodesOfTheValidatorChain() {
+        Instant now = Instant.now();
+        blacklist.blackListToken("revoked", now.plusSeconds(600));
+        // token → error code and start of the description the chain reported for it
+        Map<Jwt, List<String>> invalid = Map.of(
+                token(b -> b.issuedAt(now.minusSeconds(600)).expiresAt(now.minusSeconds(120))),
+                List.of("invalid_token", "Jwt expired at "),
+                token(b -> b.notBefore(now.plusSeconds(120))),
+                List.of("invalid_token", "Jwt used before "),
+                token(b -> b.jti("revoked")),
+                List.of("token is blacklisted", "This token has been revoked"),
+                token(b -> b.audience(List.of("other-api"))),
+                List.of("invalid_audience", "The required audience 'demo-api' is not present in the token"),
+                token(b -> b.claims(c -> c.remove("aud"))),
+                List.of("invalid_audience", "The required audience 'demo-api' is not present in the token"),
+                token(b -> b.claim("token_type", "refresh")),
+                List.of("invalid_token_type", "Token type must be 'access'"),
+                token(b -> b.claims(c -> c.remove("token_type"))),
+                List.of("invalid_token_type", "Token type must be 'access'"));
+
+        invalid.forEach((jwt, expected) -> {
+            OAuth2Error error = fused.validate(jwt).getErrors().iterator().next();
+            assertEquals(expected.get(0), error.getErrorCode(), jwt.getClaims().toString());
+            assertTrue(error.getDescription().startsWith(expected.get(1)), error.getDescription());
+        });
+    }
+
+    @Test
+    void firstFailingCheckIsTheOnlyOneReported() {
+        Instant now = Instant.now();
+        blacklist.blackListToken("revoked", now.plusSeconds(600));
+
+        // the chain reported all three, the fused validator stops at the blacklist check
+        OAuth2TokenValidatorResult result = fused.validate(token(b -> b.jti("revoked")
+                .audience(List.of("other-api"))
+                .claim("token_type", "refresh")));
+
+        assertEquals(1, result.getErrors().size());
+        assertEquals("token is blacklisted", result.getErrors().iterator().next().getErrorCode());
+
+        // expiry is checked before everything else
+        result = fused.validate(token(b -> b.issuedAt(now.minusSeconds(600)).expiresAt(now.minusSeconds(120))
+                .claim("token_type", "refresh")));
+        assertEquals(1, result.getErrors().size());
+        assertEquals("invalid_token", result.getErrors().iterator().next().getErrorCode());
+    }
+
+    @Test
+    void tokenFromAnotherIssuerIsRejected() {
+        OAuth2TokenValidatorResult result = fused.validate(token(b -> b.issuer("someone-else")));
+
+        assertEquals("invalid_token", result.getErrors().iterator().next().getErrorCode());
+    }
+}
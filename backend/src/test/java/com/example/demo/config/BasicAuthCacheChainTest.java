@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.auth.basic-cache.enabled=true",
+        // own database with the users from data.sql
+        "spring.datasource.url=jdbc:h2:mem:basic-auth-cache;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=always"
+})
+class BasicAuthCacheChainTest {
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void failedBasicLoginIsHashedOnce() throws Exception {
+        mvc.perform(get("/api/basic-auth-demo").with(httpBasic("user", "wrong"))).andExpect(status().isUnauthorized());
+        verify(passwordEncoder, times(1)).matches(any(), any());
+
+        clearInvocations(passwordEncoder);
+        // unknown user: one dummy hash against timing attacks, nothing more
+        mvc.perform(get("/api/basic-auth-demo").with(httpBasic("nobody", "wrong"))).andExpect(status().isUnauthorized());
+        verify(passwordEncoder, times(1)).matches(any(), any());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.config;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtEncodingException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedSignerJwtEncoderTest {
+
+    private final RSAKey key = new RSAKeyGenerator(2048).generate();
+    private final CachedSignerJwtEncoder encoder = new CachedSignerJwtEncoder(List.of(
+            new JwtSigningKey("demo-key-2025", JwtAlgorithm.RS256, key.toPrivateKey(), key.toPublicKey())));
+    private final JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId("demo-key-2025").build();
+
+    CachedSignerJwtEncoderTest() throws Exception {
+    }
+
+    private static JwtClaimsSet claims(String subject) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        return JwtClaimsSet.builder()
+                .issuer("demo-app")
+                .subject(subject)
+                .audience(List.of("demo-api"))
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(60))
+                .claim("roles", List.of("ROLE_USER"))
+                .build();
+    }
+
+    @Test
+    void tokensVerifyWithThePublicKey() throws Exception {
+        var decoder = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+
+        for (int i = 0; i < 3; i++) { // same Signature object reused for every token
+            JwtClaimsSet claims = claims("user-" + i);
+            Jwt encoded = encoder.encode(JwtEncoderParameters.from(header, claims));
+            Jwt decoded = decoder.decode(encoded.getTokenValue());
+
+            assertEquals("demo-key-2025", decoded.getHeaders().get("kid"));
+            assertEquals("user-" + i, decoded.getSubject());
+            assertEquals(List.of("demo-api"), decoded.getAudience());
+            assertEquals(claims.getExpiresAt(), decoded.getExpiresAt());
+            assertEquals(List.of("ROLE_USER"), decoded.getClaimAsStringList("roles"));
+            assertEquals(claims.getExpiresAt(), encoded.getExpiresAt());
+        }
+    }
+
+    @Test
+    void concurrentSigningProducesValidTokens() throws Exception {
+        var decoder = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String subject = "user-" + i;
+                tokens.add(pool.submit(() -> encoder.encode(JwtEncoderParameters.from(header, claims(subject))).getTokenValue()));
+            }
+            for (int i = 0; i < tokens.size(); i++) {
+                assertEquals("user-" + i, decoder.decode(tokens.get(i).get()).getSubject());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void unknownKidOrWrongAlgorithmIsRejected() {
+        var unknownKid = JwsHeader.with(SignatureAlgorithm.RS256).keyId("other").build();
+        var wrongAlg = JwsHeader.with(SignatureAlgorithm.RS512).keyId("demo-key-2025").build();
+
+        assertThrows(JwtEncodingException.class, () -> encoder.encode(JwtEncoderParameters.from(unknownKid, claims("user"))));
+        assertThrows(JwtEncodingException.class, () -> encoder.encode(JwtEncoderParameters.from(wrongAlg, claims("user"))));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingAuthoritiesTest {
+
+    private static Jwt withRoles(Object roles) {
+        return Jwt.withTokenValue("token").header("alg", "RS256").subject("user")
+                .claim("roles", roles).issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(60)).build();
+    }
+
+    @Test
+    void equalRoleClaimsShareOneImmutableAuthorityList() {
+        var converter = new CachingJwtAuthoritiesConverter();
+
+        Collection<GrantedAuthority> first = converter.convert(withRoles(List.of("ROLE_ADMIN", "ROLE_USER")));
+        Collection<GrantedAuthority> second = converter.convert(withRoles(new ArrayList<>(List.of("ROLE_ADMIN", "ROLE_USER"))));
+        Collection<GrantedAuthority> userOnly = converter.convert(withRoles(List.of("ROLE_USER")));
+
+        assertSame(first, second);
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), AuthorityUtils.authorityListToSet(first).stream().sorted().toList());
+        assertSame(List.copyOf(first).get(1), List.copyOf(userOnly).get(0)); // canonical ROLE_USER instance
+        assertThrows(UnsupportedOperationException.class, () -> first.add(() -> "ROLE_HACKER"));
+    }
+
+    @Test
+    void convertsLikeJwtGrantedAuthoritiesConverter() {
+        var converter = new CachingJwtAuthoritiesConverter();
+
+        assertEquals(Set.of("ROLE_A", "ROLE_B"), AuthorityUtils.authorityListToSet(converter.convert(withRoles("ROLE_A ROLE_B"))));
+        assertTrue(converter.convert(Jwt.withTokenValue("token").header("alg", "RS256").subject("user").build()).isEmpty());
+    }
+
+    @Test
+    void hierarchyIsExpandedOncePerRoleSet() {
+        var hierarchy = new CachingRoleHierarchy(RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"));
+
+        var admin = hierarchy.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        var again = hierarchy.getReachableGrantedAuthorities(new ArrayList<>(AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        var user = hierarchy.getReachableGrantedAuthorities(AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+        assertSame(admin, again);
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), AuthorityUtils.authorityListToSet(admin));
+        assertEquals(Set.of("ROLE_USER"), AuthorityUtils.authorityListToSet(user));
+        assertTrue(hierarchy.getReachableGrantedAuthorities(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingDaoAuthenticationProviderTest {
+
+    private final PasswordEncoder encoder = new BCryptPasswordEncoder(4);
+    private final InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+            User.withUsername("user").password(encoder.encode("password")).roles("USER").build());
+    private final VerifiedCredentialCache cache = new VerifiedCredentialCache(100, Duration.ofSeconds(30));
+    private final CachingDaoAuthenticationProvider provider = new CachingDaoAuthenticationProvider(users, encoder, cache);
+
+    private Authentication login(String password) {
+        return provider.authenticate(new UsernamePasswordAuthenticationToken("user", password));
+    }
+
+    @Test
+    void secondLoginIsServedFromCache() {
+        assertTrue(login("password").isAuthenticated());
+        assertTrue(login("password").isAuthenticated());
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void wrongPasswordIsNeverCached() {
+        login("password");
+
+        assertThrows(BadCredentialsException.class, () -> login("wrong"));
+        assertThrows(BadCredentialsException.class, () -> login("wrong"));
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void passwordChangeInvalidatesOldCredentials() {
+        login("password");
+        users.updateUser(User.withUsername("user").password(encoder.encode("new-password")).roles("USER").build());
+
+        assertThrows(BadCredentialsException.class, () -> login("password"));
+        assertTrue(login("new-password").isAuthenticated());
+    }
+
+    @Test
+    void disabledUserIsRejectedDespiteCachedCredentials() {
+        login("password");
+        users.updateUser(User.withUserDetails(users.loadUserByUsername("user")).disabled(true).build());
+
+        assertThrows(DisabledException.class, () -> login("password"));
+    }
+}
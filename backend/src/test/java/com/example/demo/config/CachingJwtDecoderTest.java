@@ -0,0 +1,78 @@
+package com.example.demo.config;
+
+import com.example.demo.MutableClock;
+import com.example.demo.service.TokenBlacklistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingJwtDecoderTest {
+
+    private final Instant start = Instant.now();
+    private final MutableClock clock = new MutableClock(start);
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+    private TokenBlacklistService blacklistService;
+    private CachingJwtDecoder decoder;
+
+    // Stand-in for NimbusJwtDecoder: token value "<jti>" expires 10 minutes after start
+    private final JwtDecoder delegate = token -> {
+        delegateCalls.incrementAndGet();
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .claim("jti", token)
+                .issuedAt(start)
+                .expiresAt(start.plusSeconds(600))
+                .build();
+    };
+
+    @BeforeEach
+    void setUp() {
+        blacklistService = new TokenBlacklistService();
+        decoder = new CachingJwtDecoder(delegate, new CustomJwtValidator(blacklistService), 100, clock);
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnlyOnce() {
+        Jwt first = decoder.decode("token-1");
+        Jwt second = decoder.decode("token-1");
+
+        assertSame(first, second);
+        assertEquals(1, delegateCalls.get());
+        assertEquals(1, decoder.getHitCount());
+        assertEquals(1, decoder.getMissCount());
+    }
+
+    @Test
+    void entryIsEvictedAtExpiry() {
+        decoder.decode("token-1");
+        clock.set(start.plusSeconds(600));
+
+        decoder.decode("token-1");
+
+        assertEquals(2, delegateCalls.get());
+        assertEquals(0, decoder.getHitCount());
+    }
+
+    @Test
+    void blacklistedTokenIsRejectedEvenWhenCached() {
+        decoder.decode("token-1");
+        blacklistService.blackListToken("token-1", start.plusSeconds(600));
+
+        assertThrows(JwtValidationException.class, () -> decoder.decode("token-1"));
+    }
+
+    @Test
+    void cacheStaysBounded() {
+        for (int i = 0; i < 1000; i++) {
+            decoder.decode("token-" + i);
+        }
+        assertTrue(decoder.getSize() <= 100);
+    }
+}
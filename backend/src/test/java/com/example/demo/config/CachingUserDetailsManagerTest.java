@@ -0,0 +1,110 @@
+package com.example.demo.config;
+
+import com.example.demo.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingUserDetailsManagerTest {
+
+    private final EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScripts("schema.sql", "data.sql")
+            .build();
+    private final JdbcTemplate jdbc = new JdbcTemplate(db);
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final CachingUserDetailsManager users =
+            new CachingUserDetailsManager(new UpgradableJdbcUserDetailsManager(db), 100, Duration.ofSeconds(60), clock);
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void joinQueryLoadsUserWithAllAuthorities() {
+        UserDetails admin = users.loadUserByUsername("admin");
+
+        assertEquals("admin", admin.getUsername());
+        assertTrue(admin.isEnabled());
+        assertTrue(admin.getPassword().startsWith("$2a$10$"));
+        assertEquals(jdbc.queryForList("select authority from authorities where username = 'admin'", String.class).size(),
+                admin.getAuthorities().size());
+        assertThrows(UsernameNotFoundException.class, () -> users.loadUserByUsername("nobody"));
+    }
+
+    @Test
+    void cachedUntilTtlThenReloaded() {
+        users.loadUserByUsername("user");
+        jdbc.update("update users set enabled = false where username = 'user'");
+
+        assertTrue(users.loadUserByUsername("user").isEnabled());
+        assertEquals(1, users.getMissCount());
+        assertEquals(1, users.getHitCount());
+
+        clock.advance(Duration.ofSeconds(61));
+        assertFalse(users.loadUserByUsername("user").isEnabled());
+    }
+
+    @Test
+    void mutationsEvictImmediately() {
+        users.createUser(User.withUsername("alice").password("{noop}a").roles("USER").build());
+        assertEquals(Set.of("ROLE_USER"), AuthorityUtils.authorityListToSet(users.loadUserByUsername("alice").getAuthorities()));
+
+        users.updateUser(User.withUsername("alice").password("{noop}a").roles("USER", "MANAGER").build());
+        assertEquals(Set.of("ROLE_USER", "ROLE_MANAGER"),
+                AuthorityUtils.authorityListToSet(users.loadUserByUsername("alice").getAuthorities()));
+
+        users.updatePassword(users.loadUserByUsername("alice"), "{noop}b");
+        assertEquals("{noop}b", users.loadUserByUsername("alice").getPassword());
+
+        users.deleteUser("alice");
+        assertThrows(UsernameNotFoundException.class, () -> users.loadUserByUsername("alice"));
+    }
+
+    @Test
+    void loadOverlappingAnUpdateIsNotCached() {
+        CachingUserDetailsManager[] cached = new CachingUserDetailsManager[1];
+        // the password changes after the load has read the old row, before it stores it
+        var store = new InMemoryUserDetailsManager(User.withUsername("bob").password("{noop}old").roles("USER").build()) {
+            boolean interleave = true;
+
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                UserDetails old = super.loadUserByUsername(username);
+                if (interleave) {
+                    interleave = false;
+                    cached[0].updateUser(User.withUsername("bob").password("{noop}new").roles("USER").build());
+                }
+                return old;
+            }
+        };
+        cached[0] = new CachingUserDetailsManager(store, 100, Duration.ofSeconds(60), clock);
+
+        assertEquals("{noop}old", cached[0].loadUserByUsername("bob").getPassword());
+        assertEquals("{noop}new", cached[0].loadUserByUsername("bob").getPassword());
+    }
+
+    @Test
+    void erasingCredentialsOfReturnedUserKeepsCachedPassword() {
+        ((User) users.loadUserByUsername("user")).eraseCredentials();
+
+        assertNotNull(users.loadUserByUsername("user").getPassword());
+        assertEquals(1, users.getHitCount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAlgorithmTest {
+
+    static JwtSigningKey generate(String kid, JwtAlgorithm algorithm) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.keyAlgorithm());
+        switch (algorithm) {
+            case RS256 -> generator.initialize(2048);
+            case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+            case EdDSA -> { } // Ed25519 has no parameters
+        }
+        KeyPair pair = generator.generateKeyPair();
+        return new JwtSigningKey(kid, algorithm, pair.getPrivate(), pair.getPublic());
+    }
+
+    private static String sign(JwtSigningKey key) {
+        Instant now = Instant.now();
+        var claims = JwtClaimsSet.builder().subject("user").issuedAt(now).expiresAt(now.plusSeconds(60)).build();
+        var header = JwsHeader.with(key.algorithm()).keyId(key.keyId()).build();
+        return new CachedSignerJwtEncoder(List.of(key)).encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    @ParameterizedTest
+    @EnumSource(JwtAlgorithm.class)
+    void signedTokenVerifiesWithSameKeyOnly(JwtAlgorithm algorithm) throws Exception {
+        JwtSigningKey key = generate("k1", algorithm);
+        JwtDecoder decoder = SigningKeyJwtDecoders.create(List.of(key));
+
+        Jwt jwt = decoder.decode(sign(key));
+        assertEquals("user", jwt.getSubject());
+        assertEquals(algorithm.getName(), jwt.getHeaders().get("alg").toString());
+
+        // same kid, different key material → signature check fails
+        assertThrows(JwtException.class, () -> decoder.decode(sign(generate("k1", algorithm))));
+        // unknown kid
+        assertThrows(JwtException.class, () -> decoder.decode(sign(generate("k2", algorithm))));
+    }
+
+    @ParameterizedTest
+    @EnumSource(JwtAlgorithm.class)
+    void publicJwkMatchesKeyType(JwtAlgorithm algorithm) throws Exception {
+        Map<String, Object> jwk = generate("k1", algorithm).toPublicJwk().toJSONObject();
+
+        assertEquals(Map.of(JwtAlgorithm.RS256, "RSA", JwtAlgorithm.ES256, "EC", JwtAlgorithm.EdDSA, "OKP").get(algorithm),
+                jwk.get("kty"));
+        assertEquals(algorithm.getName(), jwk.get("alg"));
+        assertEquals("k1", jwk.get("kid"));
+        assertEquals("sig", jwk.get("use"));
+        assertFalse(jwk.containsKey("d"), "private key must not be exposed");
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.config;
+
+import com.example.demo.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Test
+    void newKeyIsPublishedAtOnceButSignsOnlyAfterActivationDelay() throws Exception {
+        writeKey("old", clock.instant().minus(Duration.ofDays(1)));
+        JwtKeyRing ring = new JwtKeyRing(dir, JwtAlgorithm.ES256, Duration.ofMinutes(10), Duration.ofMinutes(30), clock);
+        assertEquals("old", ring.active().keyId());
+
+        writeKey("new", clock.instant());
+        ring.rescan();
+        assertEquals(2, ring.size());
+        assertNotNull(ring.find("new"));
+        assertEquals(2, keysIn(ring.jwks()).size());
+        assertEquals("old", ring.active().keyId());
+
+        clock.advance(Duration.ofMinutes(10));
+        ring.rescan();
+        assertEquals("new", ring.active().keyId());
+        assertEquals("new", keysIn(ring.jwks()).get(0).get("kid"));
+    }
+
+    @Test
+    void jwksIsSerializedOncePerKeyChange() throws Exception {
+        writeKey("k1", clock.instant().minus(Duration.ofDays(1)));
+        JwtKeyRing ring = new JwtKeyRing(dir, JwtAlgorithm.ES256, Duration.ofMinutes(10), Duration.ofMinutes(30), clock);
+        JwtKeyRing.JwksDocument first = ring.jwksDocument();
+
+        ring.rescan();
+        assertSame(first, ring.jwksDocument());
+
+        writeKey("k2", clock.instant());
+        ring.rescan();
+        assertNotEquals(first.etag(), ring.jwksDocument().etag());
+        assertTrue(new String(ring.jwksDocument().json()).contains("\"kid\":\"k2\""));
+    }
+
+    @Test
+    void removedKeyKeepsVerifyingUntilGraceHasPassed() throws Exception {
+        writeKey("old", clock.instant().minus(Duration.ofDays(2)));
+        writeKey("new", clock.instant().minus(Duration.ofDays(1)));
+        JwtKeyRing ring = new JwtKeyRing(dir, JwtAlgorithm.ES256, Duration.ofMinutes(10), Duration.ofMinutes(30), clock);
+        JwtDecoder decoder = SigningKeyJwtDecoders.create(ring);
+        String oldToken = sign(ring, "old");
+
+        Files.delete(dir.resolve("old-private.pem"));
+        Files.delete(dir.resolve("old-public.pem"));
+        ring.rescan();
+        assertEquals("new", ring.active().keyId());
+        assertEquals("user", decoder.decode(oldToken).getSubject());
+
+        clock.advance(Duration.ofMinutes(30));
+        ring.rescan();
+        assertNull(ring.find("old"));
+        assertEquals(1, keysIn(ring.jwks()).size());
+        assertThrows(Exception.class, () -> decoder.decode(oldToken));
+    }
+
+    @Test
+    void brokenKeyFileKeepsCurrentKeys() throws Exception {
+        writeKey("k1", clock.instant().minus(Duration.ofDays(1)));
+        JwtKeyRing ring = new JwtKeyRing(dir, JwtAlgorithm.ES256, Duration.ofMinutes(10), Duration.ofMinutes(30), clock);
+
+        Files.writeString(dir.resolve("k2-public.pem"), "-----BEGIN PUBLIC KEY-----\nnot a key\n");
+        ring.rescan();
+
+        assertEquals(1, ring.size());
+        assertEquals("k1", ring.active().keyId());
+        assertEquals(1, ring.getLoadFailureCount());
+    }
+
+    @Test
+    void replacedWatchedKeyStopsCachedTokens() throws Exception {
+        writeKey("k1", clock.instant().minus(Duration.ofDays(1)));
+        Path publicFile = dir.resolve("k1" + JwtKeyRing.PUBLIC_SUFFIX);
+        Path privateFile = dir.resolve("k1" + JwtKeyRing.PRIVATE_SUFFIX);
+        JwtKeyRing ring = JwtKeyRing.watching(List.of(privateFile, publicFile), () -> new JwtSigningKey("k1", JwtAlgorithm.ES256,
+                PemKeys.privateKey(Files.readString(privateFile), JwtAlgorithm.ES256),
+                PemKeys.publicKey(Files.readString(publicFile), JwtAlgorithm.ES256)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(SigningKeyJwtDecoders.create(ring),
+                jwt -> OAuth2TokenValidatorResult.success(), 100);
+        ring.onKeysChanged(decoder::invalidateAll);
+        String token = sign(ring, "k1");
+        decoder.decode(token);
+        decoder.decode(token);
+        assertEquals(1, decoder.getHitCount());
+
+        // compromised key replaced under the same kid
+        writeKey("k1", clock.instant());
+        ring.rescan();
+
+        assertThrows(JwtException.class, () -> decoder.decode(token));
+        assertEquals("user", decoder.decode(sign(ring, "k1")).getSubject());
+    }
+
+    private String sign(JwtKeyRing ring, String keyId) {
+        JwtSigningKey key = ring.find(keyId);
+        Instant now = Instant.now();
+        var claims = JwtClaimsSet.builder().subject("user").issuedAt(now).expiresAt(now.plusSeconds(600)).build();
+        var header = JwsHeader.with(key.algorithm()).keyId(keyId).build();
+        return new CachedSignerJwtEncoder(ring).encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    private void writeKey(String keyId, Instant modified) throws Exception {
+        JwtSigningKey key = JwtAlgorithmTest.generate(keyId, JwtAlgorithm.ES256);
+        Path publicFile = dir.resolve(keyId + JwtKeyRing.PUBLIC_SUFFIX);
+        Path privateFile = dir.resolve(keyId + JwtKeyRing.PRIVATE_SUFFIX);
+        Files.writeString(publicFile, pem("PUBLIC KEY", key.publicKey().getEncoded()));
+        Files.writeString(privateFile, pem("PRIVATE KEY", key.privateKey().getEncoded()));
+        Files.setLastModifiedTime(publicFile, FileTime.from(modified));
+        Files.setLastModifiedTime(privateFile, FileTime.from(modified));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n" + Base64.getMimeEncoder().encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> keysIn(Map<String, Object> jwks) {
+        return (List<Map<String, Object>>) jwks.get("keys");
+    }
+}
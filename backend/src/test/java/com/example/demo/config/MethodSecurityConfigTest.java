@@ -0,0 +1,76 @@
+package com.example.demo.config;
+
+import com.example.demo.controller.DocumentController;
+import com.example.demo.model.Document;
+import com.example.demo.repository.InMemoryDocumentRepository;
+import com.example.demo.service.CustomSecurityService;
+import com.example.demo.service.DocumentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.MethodInvocationResult;
+import org.springframework.security.authorization.method.PostAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MethodSecurityConfigTest {
+
+    static MethodSecurityExpressionHandler handler(SpelCompilerMode mode) {
+        var context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("customSecurity", new CustomSecurityService());
+        context.refresh();
+        return MethodSecurityConfig.methodSecurityExpressionHandler(
+                RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"), context, mode);
+    }
+
+    private static Authentication jwtUser(String name, String role) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject(name)
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(60)).build();
+        return new JwtAuthenticationToken(jwt, AuthorityUtils.createAuthorityList(role), name);
+    }
+
+    private static Authentication basicUser(String name, String role) {
+        return UsernamePasswordAuthenticationToken.authenticated(name, "n/a", AuthorityUtils.createAuthorityList(role));
+    }
+
+    @Test
+    void compiledExpressionsGiveTheSameDecisionsForEveryAuthenticationType() throws Exception {
+        var controller = new DocumentController(new DocumentService(new InMemoryDocumentRepository()),
+                RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"));
+        var byOwner = DocumentController.class.getMethod("getDocuementByOwner", String.class);
+        var getDocument = DocumentController.class.getMethod("getDocument", Long.class);
+        var pre = new PreAuthorizeAuthorizationManager();
+        var post = new PostAuthorizeAuthorizationManager();
+        pre.setExpressionHandler(handler(SpelCompilerMode.IMMEDIATE));
+        post.setExpressionHandler(handler(SpelCompilerMode.IMMEDIATE));
+
+        var ownDocs = new SimpleMethodInvocation(controller, byOwner, "user");
+        var userDoc = new MethodInvocationResult(new SimpleMethodInvocation(controller, getDocument, 2L),
+                new Document(2L, "User Guide", "", "user"));
+        // repeated: the first evaluation compiles, the later ones run the compiled class
+        for (int i = 0; i < 3; i++) {
+            for (Authentication user : List.of(jwtUser("user", "ROLE_USER"), basicUser("user", "ROLE_USER"))) {
+                assertTrue(pre.authorize(() -> user, ownDocs).isGranted());
+                assertTrue(post.authorize(() -> user, userDoc).isGranted());
+            }
+            for (Authentication other : List.of(jwtUser("other", "ROLE_USER"), basicUser("other", "ROLE_USER"))) {
+                assertFalse(pre.authorize(() -> other, ownDocs).isGranted());
+                assertFalse(post.authorize(() -> other, userDoc).isGranted());
+            }
+            // hasRole('ADMIN') through the role hierarchy bean
+            assertTrue(post.authorize(() -> jwtUser("admin", "ROLE_ADMIN"), userDoc).isGranted());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordConfigTest {
+
+    // data.sql hash of "password" (BCrypt strength 10, no {id} prefix)
+    private static final String LEGACY_HASH = "$2a$10$YrUNg4jWGVWViWIRG2cqW.dsD/Hhu77dQps46dkvb39uwQkPOzYg.";
+
+    private final PasswordConfig config = new PasswordConfig();
+
+    private PasswordEncoder encoder(String id) {
+        return config.passwordEncoder(id, Duration.ofMillis(1), 4, 1024, 1, 1);
+    }
+
+    @Test
+    void legacyHashStillMatchesAndIsMarkedForUpgrade() {
+        PasswordEncoder encoder = encoder("bcrypt");
+
+        assertTrue(encoder.matches("password", LEGACY_HASH));
+        assertTrue(encoder.upgradeEncoding(LEGACY_HASH));
+
+        String fresh = encoder.encode("password");
+        assertTrue(fresh.startsWith("{bcrypt}$2a$04$"));
+        assertFalse(encoder.upgradeEncoding(fresh));
+    }
+
+    @Test
+    void switchingToArgon2UpgradesBcryptHashes() {
+        String bcryptHash = encoder("bcrypt").encode("password");
+        PasswordEncoder argon2 = encoder("argon2");
+
+        String fresh = argon2.encode("password");
+        assertTrue(fresh.startsWith("{argon2}$argon2id$"));
+        assertTrue(argon2.matches("password", fresh));
+        assertTrue(argon2.matches("password", bcryptHash));
+        assertTrue(argon2.upgradeEncoding(bcryptHash));
+        assertFalse(argon2.upgradeEncoding(fresh));
+    }
+
+    @Test
+    void successfulLoginStoresUpgradedHash() {
+        var users = new InMemoryUserDetailsManager(
+                User.withUsername("user").password(LEGACY_HASH).roles("USER").build());
+        var provider = new DaoAuthenticationProvider(users);
+        provider.setPasswordEncoder(encoder("bcrypt"));
+        provider.setUserDetailsPasswordService(users);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("user", "password"));
+
+        assertTrue(users.loadUserByUsername("user").getPassword().startsWith("{bcrypt}$2a$04$"));
+    }
+
+    @Test
+    void calibrationNeverGoesBelowDefaults() {
+        assertEquals(PasswordHashCalibration.MIN_BCRYPT_STRENGTH, PasswordHashCalibration.bcryptStrength(Duration.ofNanos(1)));
+        assertEquals(1, PasswordHashCalibration.argon2Iterations(Duration.ofNanos(1), 1024, 1));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.config;
+
+import com.example.demo.filter.RateLimitingFilter;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.rate-limit.rules[0].name=flood",
+        "app.rate-limit.rules[0].stage=pre-auth",
+        "app.rate-limit.rules[0].path=/api/users/me",
+        "app.rate-limit.rules[0].limits[0].capacity=1",
+        "app.rate-limit.rules[0].limits[0].period=1m"
+})
+class RateLimitFilterOrderTest {
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @Autowired
+    @Qualifier("preAuthRateLimitFilter")
+    private RateLimitingFilter preAuthRateLimitFilter;
+
+    @Autowired
+    @Qualifier("principalRateLimitFilter")
+    private RateLimitingFilter principalRateLimitFilter;
+
+    @Autowired
+    private List<FilterRegistrationBean<?>> registrations;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void stagesSurroundAuthenticationFilters() {
+        List<Filter> filters = filterChainProxy.getFilterChains().get(0).getFilters();
+
+        int preAuth = filters.indexOf(preAuthRateLimitFilter);
+        int basic = indexOf(filters, BasicAuthenticationFilter.class);
+        int bearer = indexOf(filters, BearerTokenAuthenticationFilter.class);
+        int principal = filters.indexOf(principalRateLimitFilter);
+
+        assertTrue(preAuth >= 0 && preAuth < Math.min(basic, bearer), filters.toString());
+        assertTrue(principal > Math.max(basic, bearer), filters.toString());
+    }
+
+    @Test
+    void filtersAreNotRegisteredWithServletContainer() {
+        long enabled = registrations.stream()
+                .filter(r -> r.getFilter() instanceof RateLimitingFilter)
+                .filter(FilterRegistrationBean::isEnabled)
+                .count();
+        assertEquals(0, enabled);
+    }
+
+    @Test
+    void floodIsRejectedBeforeBearerTokenIsVerified() throws Exception {
+        // 1st request reaches the JWT decoder and fails there
+        mvc.perform(get("/api/users/me").header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized());
+        // 2nd request never gets that far
+        mvc.perform(get("/api/users/me").header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    private static int indexOf(List<Filter> filters, Class<? extends Filter> type) {
+        for (int i = 0; i < filters.size(); i++) {
+            if (type.isInstance(filters.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,70 +1,68 @@
 package com.example.demo.controller;
 
-import com.example.demo.config.AudienceValidator;
+import com.example.demo.config.AccessTokenValidator;
+import com.example.demo.service.TokenBlacklistService;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class AudienceValidationTest {
 
+    private final AccessTokenValidator validator =
+            new AccessTokenValidator(new TokenBlacklistService(), "demo-app", "demo-api");
+
     @Test
     public void testValidAudience() {
-        AudienceValidator validator = new AudienceValidator();
-        // Simulate setting the expected audience
-        // In real test, this would come from Spring context
-
         Jwt jwt = Jwt.withTokenValue("test-token")
                 .header("alg", "RS256")
                 .claim("aud", List.of("demo-api"))
                 .claim("sub", "user")
                 .claim("iss", "demo-app")
+                .claim("token_type", "access")
                 .issuedAt(Instant.now())
                 .expiresAt(Instant.now().plusSeconds(3600))
                 .build();
 
-        // This would pass if audience matches
-        // OAuth2TokenValidatorResult result = validator.validate(jwt);
-        // assertTrue(result.hasErrors() == false);
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        assertFalse(result.hasErrors());
     }
 
     @Test
     public void testInvalidAudience() {
-        AudienceValidator validator = new AudienceValidator();
-
         Jwt jwt = Jwt.withTokenValue("test-token")
                 .header("alg", "RS256")
                 .claim("aud", List.of("wrong-api"))  // Wrong audience
                 .claim("sub", "user")
                 .claim("iss", "demo-app")
+                .claim("token_type", "access")
                 .issuedAt(Instant.now())
                 .expiresAt(Instant.now().plusSeconds(3600))
                 .build();
 
-        // This would fail due to wrong audience
-        // OAuth2TokenValidatorResult result = validator.validate(jwt);
-        // assertTrue(result.hasErrors());
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        assertTrue(result.hasErrors());
+        assertEquals("invalid_audience", result.getErrors().iterator().next().getErrorCode());
     }
 
     @Test
     public void testMissingAudience() {
-        AudienceValidator validator = new AudienceValidator();
-
         Jwt jwt = Jwt.withTokenValue("test-token")
                 .header("alg", "RS256")
                 // No audience claim
                 .claim("sub", "user")
                 .claim("iss", "demo-app")
+                .claim("token_type", "access")
                 .issuedAt(Instant.now())
                 .expiresAt(Instant.now().plusSeconds(3600))
                 .build();
 
-        // This would fail due to missing audience
-        // OAuth2TokenValidatorResult result = validator.validate(jwt);
-        // assertTrue(result.hasErrors());
+        OAuth2TokenValidatorResult result = validator.validate(jwt);
+        assertTrue(result.hasErrors());
+        assertEquals("invalid_audience", result.getErrors().iterator().next().getErrorCode());
     }
-}
\ No newline at end of file
+}
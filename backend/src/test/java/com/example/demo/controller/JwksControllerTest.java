@@ -9,6 +9,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -56,4 +59,24 @@ public class JwksControllerTest {
                 .andExpect(jsonPath("$.keys[0].p").doesNotExist())  // Prime p should not exist
                 .andExpect(jsonPath("$.keys[0].q").doesNotExist()); // Prime q should not exist
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testJwksIsCacheableAndRevalidatesWithEtag() throws Exception {
+        String etag = mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys[0].kid").value("demo-key-2025"));
+    }
+}
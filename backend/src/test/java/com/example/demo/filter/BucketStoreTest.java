@@ -0,0 +1,53 @@
+package com.example.demo.filter;
+
+import com.example.demo.MutableClock;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BucketStoreTest {
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final BucketStore store = new BucketStore(BucketStoreTest::newBucket, Duration.ofMinutes(1), 100, clock);
+
+    private static Bucket newBucket(String key) {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder().capacity(10).refillIntervally(10, Duration.ofMinutes(1)).build())
+                .build();
+    }
+
+    @Test
+    void sameKeyGetsSameBucketUntilIdleForRefillPeriod() {
+        Bucket first = store.resolve("10.0.0.1");
+        clock.advance(Duration.ofSeconds(30));
+        assertSame(first, store.resolve("10.0.0.1"));
+
+        assertEquals(0, store.evictIdle()); // touched 0s ago
+
+        clock.advance(Duration.ofSeconds(60));
+        assertEquals(1, store.evictIdle());
+        assertEquals(0, store.size());
+        assertNotSame(first, store.resolve("10.0.0.1"));
+        assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    void storeStaysBoundedAndKeepsRecentlyUsedKeys() {
+        Bucket active = store.resolve("active");
+        for (int i = 0; i < 1000; i++) {
+            clock.advance(Duration.ofMillis(1));
+            store.resolve("scanner-" + i);
+            if (i % 50 == 0) {
+                store.resolve("active");
+            }
+        }
+
+        assertTrue(store.size() <= 100);
+        assertSame(active, store.resolve("active"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.filter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcBucketProxyManagerTest {
+
+    private final EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("schema.sql")
+            .build();
+
+    // Two managers on one database = two replicas of the app
+    private final JdbcBucketProxyManager replicaA = new JdbcBucketProxyManager(db);
+    private final JdbcBucketProxyManager replicaB = new JdbcBucketProxyManager(db);
+
+    private static final BucketConfiguration TEN_PER_MINUTE = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(10).refillIntervally(10, Duration.ofMinutes(1)).build())
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void replicasShareOneLimit() {
+        Bucket onA = replicaA.builder().build("ip:10.0.0.1", () -> TEN_PER_MINUTE);
+        Bucket onB = replicaB.builder().build("ip:10.0.0.1", () -> TEN_PER_MINUTE);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(onA.tryConsume(1));
+            assertTrue(onB.tryConsume(1));
+        }
+        assertFalse(onA.tryConsume(1));
+        assertFalse(onB.tryConsume(1));
+
+        // a bucket with tokens taken is not full yet, so it is not cleaned up
+        assertEquals(0, replicaA.deleteExpired());
+    }
+
+    @Test
+    void concurrentConsumersNeverExceedLimit() throws Exception {
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 40; i++) {
+            JdbcBucketProxyManager replica = i % 2 == 0 ? replicaA : replicaB;
+            pool.execute(() -> {
+                if (replica.builder().build("user:alice", () -> TEN_PER_MINUTE).tryConsume(1)) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(10, granted.get());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingFilterTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties(1000, List.of(
+            new RateLimitProperties.Rule("login", RateLimitProperties.Stage.PRINCIPAL, null, "/api/token", List.of("POST"), RateLimitProperties.KeyType.IP,
+                    List.of(new RateLimitProperties.Limit(2, 0, Duration.ofSeconds(10), false),
+                            new RateLimitProperties.Limit(5, 0, Duration.ofMinutes(1), true))),
+            new RateLimitProperties.Rule("admin", RateLimitProperties.Stage.PRINCIPAL, "ADMIN", "/**", null, RateLimitProperties.KeyType.USER,
+                    List.of(new RateLimitProperties.Limit(1000, 0, Duration.ofMinutes(1), false))),
+            new RateLimitProperties.Rule("user", RateLimitProperties.Stage.PRINCIPAL, "authenticated", "/api/*/documents/**", null, RateLimitProperties.KeyType.USER,
+                    List.of(new RateLimitProperties.Limit(200, 0, Duration.ofMinutes(1), false)))));
+
+    private final RateLimitingFilter filter =
+            new RateLimitingFilter(RateLimitProperties.Stage.PRINCIPAL, properties, new StaticListableBeanFactory().getBeanProvider(RateLimitBucketFactory.class));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void burstLimitRejectsWithRateLimitHeaders() throws Exception {
+        assertEquals(200, perform("POST", "/api/token").getStatus());
+        MockHttpServletResponse second = perform("POST", "/api/token");
+        assertEquals("2", second.getHeader("RateLimit-Limit"));
+        assertEquals("0", second.getHeader("RateLimit-Remaining"));
+        assertEquals("2;w=10, 5;w=60", second.getHeader("RateLimit-Policy"));
+
+        MockHttpServletResponse rejected = perform("POST", "/api/token");
+        assertEquals(429, rejected.getStatus());
+        long retryAfter = Long.parseLong(rejected.getHeader("Retry-After"));
+        assertTrue(retryAfter > 0 && retryAfter <= 10);
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+
+        // GET is not covered by the login rule (and no other rule matches anonymous callers)
+        MockHttpServletResponse get = perform("GET", "/api/token");
+        assertEquals(200, get.getStatus());
+        assertNull(get.getHeader("RateLimit-Limit"));
+    }
+
+    @Test
+    void encodedPathCountsAgainstTheSameRule() throws Exception {
+        perform("POST", "/api/token");
+        perform("POST", "/api/%74oken");
+        assertEquals(429, perform("POST", "/api/token;jsessionid=1").getStatus());
+    }
+
+    @Test
+    void ruleIsSelectedByRoleAndPath() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin", "pw", "ROLE_ADMIN"));
+        assertEquals("1000", perform("GET", "/api/v1/documents").getHeader("RateLimit-Limit"));
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", "pw", "ROLE_USER"));
+        assertEquals("200", perform("GET", "/api/v1/documents/42").getHeader("RateLimit-Limit"));
+        assertNull(perform("GET", "/api/v1/other").getHeader("RateLimit-Limit"));
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcDocumentRepositoryTest {
+
+    private final EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("schema.sql")
+            .addScript("data.sql")
+            .build();
+    private final JdbcDocumentRepository repository = new JdbcDocumentRepository(db);
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    private static List<Long> ids(List<Document> documents) {
+        return documents.stream().map(Document::getId).toList();
+    }
+
+    @Test
+    void saveReplacesByIdAndInsertsUnderGeneratedId() {
+        Document created = repository.save(new Document(null, "Draft", "text", "user"));
+        assertEquals(5L, created.getId());
+
+        repository.save(new Document(4L, "Public Doc", "Everyone can see", "manager"));
+        // unknown id (e.g. bound from the request): inserted under a generated id, later inserts still work
+        Document imported = repository.save(new Document(42L, "Imported", "", "admin"));
+        Document next = repository.save(new Document(null, "Next", "", "admin"));
+
+        assertEquals(6L, imported.getId());
+        assertEquals(7L, next.getId());
+        assertTrue(repository.findById(42L).isEmpty());
+        assertEquals(List.of(2L, 5L), ids(repository.findByOwner("user")));
+        assertEquals(List.of(3L, 4L), ids(repository.findByOwner("manager")));
+        assertEquals(List.of(1L, 6L, 7L), ids(repository.findByOwner("admin")));
+        assertEquals(7, repository.count());
+    }
+
+    @Test
+    void keysetAndOffsetPagesFollowIdOrder() {
+        for (int i = 0; i < 10; i++) {
+            repository.save(new Document(null, "Doc " + i, "", i % 2 == 0 ? "user" : "manager"));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(repository.findAfter(null, null, 4)));
+        assertEquals(List.of(5L, 6L, 7L, 8L), ids(repository.findAfter(null, 4L, 4)));
+        assertEquals(List.of(5L, 6L, 7L, 8L), ids(repository.findPage(null, 4, 4)));
+        assertEquals(List.of(4L, 5L, 7L), ids(repository.findAfter("user", 3L, 3)));
+        assertEquals(List.of(9L, 11L, 13L), ids(repository.findPage("user", 4, 10)));
+        assertTrue(repository.findAfter("user", 13L, 10).isEmpty());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.RefreshToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcRefreshTokenRepositoryTest {
+
+    private final EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("schema.sql")
+            .build();
+    private final JdbcRefreshTokenRepository repository =
+            new JdbcRefreshTokenRepository(db, new DataSourceTransactionManager(db), 64, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+        db.shutdown();
+    }
+
+    @Test
+    void rotationMarksOldTokenAndStoresReplacement() {
+        repository.save(token("t1", "family"));
+
+        assertTrue(repository.rotate("t1", token("t2", "family"), Instant.now()));
+        assertFalse(repository.rotate("t1", token("t3", "family"), Instant.now()));
+
+        assertTrue(repository.findByToken("t1").orElseThrow().isUsed());
+        assertFalse(repository.findByToken("t2").orElseThrow().isUsed());
+        assertTrue(repository.findByToken("t3").isEmpty());
+
+        repository.revokeFamily("family");
+        assertTrue(repository.findByToken("t2").orElseThrow().isUsed());
+    }
+
+    @Test
+    void concurrentRotationOfSameTokenHasOneWinner() throws Exception {
+        repository.save(token("shared", "family"));
+
+        assertEquals(1, rotateConcurrently(16, i -> "shared"));
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void concurrentRotationsOfDifferentTokensAllWin() throws Exception {
+        for (int i = 0; i < 16; i++) {
+            repository.save(token("t" + i, "family-" + i));
+        }
+
+        assertEquals(16, rotateConcurrently(16, i -> "t" + i));
+        assertEquals(32, repository.count());
+    }
+
+    @Test
+    void stalledWriterFinishesTakenRotationAndWithdrawsQueuedOne() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // the writer thread hangs right before committing, after its statements ran
+        var stalling = new DataSourceTransactionManager(db) {
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+                committing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.doCommit(status);
+            }
+        };
+        var stalled = new JdbcRefreshTokenRepository(db, stalling, 64, Duration.ofMillis(200));
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            stalled.save(token("t1", "family-1"));
+            stalled.save(token("t2", "family-2"));
+
+            // t1 is taken by the writer and hangs in its commit, t2 waits in the queue behind it
+            Future<Boolean> first = caller.submit(() -> stalled.rotate("t1", token("t1-new", "family-1"), Instant.now()));
+            assertTrue(committing.await(5, TimeUnit.SECONDS));
+            assertThrows(QueryTimeoutException.class, () -> stalled.rotate("t2", token("t2-new", "family-2"), Instant.now()));
+
+            // past its timeout, t1's caller still waits - the rotation is about to commit
+            Thread.sleep(200);
+            assertFalse(first.isDone());
+
+            release.countDown();
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(stalled.findByToken("t1").orElseThrow().isUsed());
+            assertTrue(stalled.findByToken("t1-new").isPresent());
+
+            Thread.sleep(200);
+            assertFalse(stalled.findByToken("t2").orElseThrow().isUsed());
+            assertTrue(stalled.findByToken("t2-new").isEmpty());
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+            stalled.shutdown();
+        }
+    }
+
+    private int rotateConcurrently(int threads, IntFunction<String> usedToken) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int n = i;
+            results.add(pool.submit(() -> {
+                start.await();
+                return repository.rotate(usedToken.apply(n), token("new-" + n, "family"), Instant.now());
+            }));
+        }
+        start.countDown();
+        int winners = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                winners++;
+            }
+        }
+        pool.shutdown();
+        return winners;
+    }
+
+    private static RefreshToken token(String value, String family) {
+        return new RefreshToken(value, "user", Instant.now().plusSeconds(3600), family);
+    }
+}
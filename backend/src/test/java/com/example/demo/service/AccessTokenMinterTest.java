@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CachedSignerJwtEncoder;
+import com.example.demo.config.JwtAlgorithm;
+import com.example.demo.config.JwtKeyRing;
+import com.example.demo.config.JwtSigningKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenMinterTest {
+
+    @Test
+    void mintedTokenCarriesStaticAndPerTokenClaims() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("demo-key-2025").generate();
+        var signingKey = new JwtSigningKey("demo-key-2025", JwtAlgorithm.RS256, key.toPrivateKey(), key.toPublicKey());
+        var keyRing = JwtKeyRing.of(List.of(signingKey));
+        var minter = new AccessTokenMinter(new CachedSignerJwtEncoder(keyRing), keyRing,
+                "demo-app", 30, "demo-api");
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        Jwt jwt = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build()
+                .decode(minter.mint("user", List.of("ROLE_USER"), now));
+
+        assertEquals("demo-key-2025", jwt.getHeaders().get("kid"));
+        assertEquals("demo-app", jwt.getClaimAsString("iss"));
+        assertEquals(List.of("demo-api"), jwt.getAudience());
+        assertEquals("access", jwt.getClaimAsString("token_type"));
+        assertEquals("user", jwt.getSubject());
+        assertEquals(List.of("ROLE_USER"), jwt.getClaimAsStringList("roles"));
+        assertEquals(now.plusSeconds(1800), jwt.getExpiresAt());
+        assertNotNull(jwt.getId());
+    }
+
+    @Test
+    void jtiLooksLikeRandomUuidAndIsUnique() {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID jti = UUID.fromString(AccessTokenMinter.newJti());
+            assertEquals(4, jti.version());
+            assertEquals(2, jti.variant());
+            assertTrue(seen.add(jti.toString()));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticationExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final AuthenticationExecutor executor = new AuthenticationExecutor(this::slowCheck, 1, 1, Duration.ofSeconds(30));
+
+    // Stand-in for the BCrypt check: blocks until released, "bad" password fails
+    private Authentication slowCheck(Authentication request) {
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if ("bad".equals(request.getCredentials())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(request.getName(), null, List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void fullQueueIsShedImmediately() throws Exception {
+        CompletableFuture<Authentication> running = executor.authenticate(login("good"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Authentication> queued = executor.authenticate(login("bad"));
+
+        CompletableFuture<Authentication> shed = executor.authenticate(login("good"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> shed.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(AuthenticationOverloadedException.class, e.getCause());
+        assertEquals(1, executor.getRejectedCount());
+
+        release.countDown();
+        assertEquals("alice", running.get(5, TimeUnit.SECONDS).getName());
+        ExecutionException bad = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(BadCredentialsException.class, bad.getCause());
+    }
+
+    @Test
+    void loginThatWaitedTooLongIsShedWithoutPasswordCheck() throws Exception {
+        AuthenticationExecutor impatient = new AuthenticationExecutor(this::slowCheck, 1, 1, Duration.ofMillis(50));
+        try {
+            CompletableFuture<Authentication> running = impatient.authenticate(login("good"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Authentication> stale = impatient.authenticate(login("good"));
+            assertFalse(stale.isDone()); // caller is not blocked, the check is queued
+
+            Thread.sleep(100);
+            release.countDown();
+
+            assertNotNull(running.get(5, TimeUnit.SECONDS));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> stale.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AuthenticationOverloadedException.class, e.getCause());
+        } finally {
+            impatient.shutdown();
+        }
+    }
+
+    private static Authentication login(String password) {
+        return new UsernamePasswordAuthenticationToken("alice", password);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.service;
+
+import com.example.demo.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomSecurityServiceTest {
+
+    @Test
+    void cachedTickFollowsTheClockAcrossHourAndDayBoundaries() {
+        var clock = new MutableClock(Instant.parse("2025-01-03T08:59:59Z")); // Friday
+        var service = new CustomSecurityService(clock);
+
+        assertFalse(service.isWorkingHours());
+        assertTrue(service.isWeekday());
+
+        clock.set(Instant.parse("2025-01-03T09:00:00Z"));
+        assertTrue(service.isWorkingHours());
+
+        clock.set(Instant.parse("2025-01-04T10:30:00Z")); // Saturday
+        assertTrue(service.isWorkingHours());
+        assertFalse(service.isWeekday());
+    }
+}
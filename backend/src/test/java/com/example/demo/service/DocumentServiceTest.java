@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.controller.DocumentController;
+import com.example.demo.dtos.DocumentPage;
+import com.example.demo.model.Document;
+import com.example.demo.repository.InMemoryDocumentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentServiceTest {
+
+    private final DocumentService service = new DocumentService(new InMemoryDocumentRepository());
+
+    private static List<Long> ids(List<Document> documents) {
+        return documents.stream().map(Document::getId).toList();
+    }
+
+    @Test
+    void ownerIndexFollowsSaves() {
+        assertEquals(List.of(2L, 4L), ids(service.findByOwner("user")));
+        assertTrue(service.findByOwner("nobody").isEmpty());
+
+        // document 4 changes owner, a new one gets the next id
+        service.save(new Document(4L, "Public Doc", "Everyone can see", "manager"));
+        Document created = service.save(new Document(null, "Draft", "", "user"));
+
+        assertEquals(5L, created.getId());
+        assertEquals(List.of(2L, 5L), ids(service.findByOwner("user")));
+        assertEquals(List.of(3L, 4L), ids(service.findByOwner("manager")));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(service.findAll()));
+    }
+
+    @Test
+    void unknownIdIsStoredUnderTheNextFreeId() {
+        Document imported = service.save(new Document(42L, "Imported", "", "admin"));
+
+        assertEquals(5L, imported.getId());
+        assertNull(service.findById(42L));
+        assertEquals(6L, service.save(new Document(null, "Next", "", "admin")).getId());
+    }
+
+    @Test
+    void createDocumentNeverReplacesAnotherUsersDocument() {
+        var controller = new DocumentController(service, RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"));
+
+        // id of the admin's document, own name as owner - passes @PreAuthorize
+        controller.createDocument(new Document(1L, "Mine now", "", "user"));
+
+        Document adminReport = service.findById(1L);
+        assertEquals("Admin Report", adminReport.getTitle());
+        assertEquals("admin", adminReport.getOwner());
+        assertEquals(List.of(2L, 4L, 5L), ids(service.findByOwner("user")));
+        assertEquals("Mine now", service.findById(5L).getTitle());
+    }
+
+    @Test
+    void readsShareTheStoredImmutableLists() {
+        assertSame(service.findAll(), service.findAll());
+        assertSame(service.findByOwner("user"), service.findByOwner("user"));
+        assertThrows(UnsupportedOperationException.class, () -> service.findAll().clear());
+    }
+
+    @Test
+    void allDocumentsEndpointReturnsOwnDocumentsOrEverythingForAdmin() {
+        var controller = new DocumentController(service, RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"));
+
+        var user = UsernamePasswordAuthenticationToken.authenticated("user", "n/a", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        var admin = UsernamePasswordAuthenticationToken.authenticated("admin", "n/a", AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+        assertEquals(List.of(2L, 4L), ids(controller.getAllDocuments(user)));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(controller.getAllDocuments(admin)));
+    }
+
+    @Test
+    void cursorAndNumberedPagesWalkTheSameOrder() {
+        for (int i = 0; i < 10; i++) {
+            service.save(new Document(null, "Doc " + i, "", i % 2 == 0 ? "user" : "manager"));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(service.findAfter(null, null, 4)));
+        assertEquals(List.of(5L, 6L, 7L, 8L), ids(service.findAfter(null, 4L, 4)));
+        assertEquals(List.of(5L, 6L, 7L, 8L), ids(service.findPage(null, 1, 4)));
+        assertEquals(List.of(13L, 14L), ids(service.findPage(null, 3, 4)));
+        assertTrue(service.findPage(null, 9, 4).isEmpty());
+
+        // cursor between two of the owner's ids
+        assertEquals(List.of(4L, 5L, 7L), ids(service.findAfter("user", 3L, 3)));
+        assertEquals(List.of(9L, 11L, 13L), ids(service.findAfter("user", 7L, 10)));
+    }
+
+    @Test
+    void pageEndpointHandsOutCursorUntilLastPage() {
+        var controller = new DocumentController(service, RoleHierarchyImpl.fromHierarchy("ROLE_ADMIN > ROLE_USER"));
+        var user = UsernamePasswordAuthenticationToken.authenticated("user", "n/a", AuthorityUtils.createAuthorityList("ROLE_USER"));
+        service.save(new Document(null, "Draft", "", "user"));
+
+        DocumentPage first = controller.getDocumentPage(user, null, 0, 2);
+        DocumentPage second = controller.getDocumentPage(user, first.nextCursor(), 0, 2);
+
+        assertEquals(List.of(2L, 4L), ids(first.items()));
+        assertEquals(4L, first.nextCursor());
+        assertEquals(List.of(5L), ids(second.items()));
+        assertNull(second.nextCursor());
+        assertEquals(List.of(5L), ids(controller.getDocumentPage(user, null, 1, 2).items()));
+    }
+}
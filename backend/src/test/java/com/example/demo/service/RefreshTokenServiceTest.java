@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import com.example.demo.model.RefreshToken;
+import com.example.demo.repository.InMemoryRefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenService service = new RefreshTokenService(new InMemoryRefreshTokenRepository());
+
+    @Test
+    void rotatedTokenStaysInFamily() {
+        RefreshToken first = service.createRefreshToken("user");
+        RefreshToken second = service.verifyAndRotateToken(first.getToken());
+
+        assertEquals(first.getTokenFamily(), second.getTokenFamily());
+        assertEquals("user", second.getUsername());
+        assertTrue(service.findByToken(first.getToken()).orElseThrow().isUsed());
+        assertFalse(second.isUsed());
+    }
+
+    @Test
+    void reuseRevokesWholeFamilyOnly() {
+        RefreshToken first = service.createRefreshToken("user");
+        RefreshToken second = service.verifyAndRotateToken(first.getToken());
+        RefreshToken otherDevice = service.createRefreshToken("user");
+
+        assertThrows(RuntimeException.class, () -> service.verifyAndRotateToken(first.getToken()));
+
+        assertTrue(second.isUsed());
+        assertFalse(otherDevice.isUsed());
+    }
+
+    @Test
+    void logoutEverywhereRevokesAllFamiliesOfUser() {
+        RefreshToken laptop = service.createRefreshToken("user");
+        RefreshToken phone = service.verifyAndRotateToken(service.createRefreshToken("user").getToken());
+        RefreshToken someoneElse = service.createRefreshToken("admin");
+
+        service.invalidateAllUserTokens("user");
+
+        assertTrue(laptop.isUsed());
+        assertTrue(phone.isUsed());
+        assertFalse(someoneElse.isUsed());
+    }
+
+    @Test
+    void cleanupKeepsLiveTokens() {
+        RefreshToken token = service.createRefreshToken("user");
+
+        service.cleanupExpiredTokens();
+
+        assertTrue(service.findByToken(token.getToken()).isPresent());
+        assertEquals(1, service.getTokenCount());
+    }
+
+    @Test
+    void concurrentReuseHasOneWinnerAndEveryLoserRevokesFamily() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                RefreshToken original = service.createRefreshToken("user");
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<RefreshToken>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            return service.verifyAndRotateToken(original.getToken());
+                        } catch (RuntimeException e) {
+                            assertEquals("Token already used - possible theft detected!", e.getMessage());
+                            return null;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                List<RefreshToken> winners = new ArrayList<>();
+                for (Future<RefreshToken> result : results) {
+                    RefreshToken rotated = result.get();
+                    if (rotated != null) {
+                        winners.add(rotated);
+                    }
+                }
+                assertEquals(1, winners.size(), "round " + round);
+                // the losers saw the reuse, so the token handed to the winner must be dead as well
+                assertEquals(RefreshToken.State.REVOKED, winners.get(0).getState(), "round " + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBlacklistServiceTest {
+
+    private final TokenBlacklistService service = new TokenBlacklistService();
+
+    @Test
+    void blacklistedTokenIsReportedUntilCleanup() {
+        Instant now = Instant.now();
+        service.blackListToken("live", now.plusSeconds(600));
+        service.blackListToken("expired", now.minusSeconds(5));
+
+        assertTrue(service.isBlackListed("live"));
+        assertTrue(service.isBlackListed("expired"));
+        assertFalse(service.isBlackListed("unknown"));
+        assertFalse(service.isBlackListed(null));
+
+        service.cleanupExpiredTokens();
+
+        assertTrue(service.isBlackListed("live"));
+        assertFalse(service.isBlackListed("expired"));
+        assertEquals(1, service.getBlacklistSize());
+    }
+
+    @Test
+    void reBlacklistingWithLaterExpiryKeepsEntry() {
+        Instant now = Instant.now();
+        service.blackListToken("jti", now.minusSeconds(5));
+        service.blackListToken("jti", now.plusSeconds(600));
+        service.blackListToken("jti", now.plusSeconds(60));
+
+        service.cleanupExpiredTokens();
+
+        assertTrue(service.isBlackListed("jti"));
+        assertEquals(now.plusSeconds(600), service.blacklistedUntil("jti"));
+    }
+
+    @Test
+    void sweepIsPublishedAsMetrics() {
+        var registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        Instant now = Instant.now();
+        for (int i = 0; i < 100; i++) {
+            service.blackListToken("jti-" + i, now.minusSeconds(i + 1));
+        }
+        service.blackListToken("live", now.plusSeconds(600));
+
+        service.cleanupExpiredTokens();
+
+        assertEquals(1.0, registry.get("token.blacklist.size").gauge().value());
+        assertEquals(100.0, registry.get("token.blacklist.expired").counter().count());
+        assertEquals(1, registry.get("token.blacklist.sweep").timer().count());
+    }
+}